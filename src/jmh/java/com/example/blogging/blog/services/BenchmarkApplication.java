@@ -0,0 +1,63 @@
+package com.example.blogging.blog.services;
+
+import com.example.BlogApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Starts the application for the benchmarks: in-memory H2, no web server, no SQL logging,
+ * and the LIKE search engine, so that the repository search path is measured.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(BlogApplication.class)
+                .profiles("h2")
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=warn",
+                        "blog.search.engine=like",
+                        "blog.bulkhead.max-wait=1m"
+                )
+                .run();
+    }
+
+    /**
+     * Inserts the given number of posts with a single INSERT ... SELECT, which takes seconds even for a million rows.
+     * Every post gets a distinct title, one of 20 categories, two of 50 tags and content of the given length.
+     * The creation times are one second apart, so that the listing order is fixed.
+     *
+     * @param jdbcTemplate the template of the benchmark database
+     * @param posts the number of posts to insert
+     * @param contentLength the length of the content of every post
+     */
+    static void seed(JdbcTemplate jdbcTemplate, int posts, int contentLength) {
+        jdbcTemplate.update("""
+                INSERT INTO blog (id, version, created_at, updated_at, tittle, content, category)
+                SELECT x, 0,
+                       DATEADD(SECOND, x, TIMESTAMP '2024-01-01 00:00:00'),
+                       DATEADD(SECOND, x, TIMESTAMP '2024-01-01 00:00:00'),
+                       CONCAT('Post ', x),
+                       LEFT(CONCAT('Post ', x, ': ', REPEAT('All programmers must practice unit testing. ', CAST(? AS INT) / 44 + 1)), CAST(? AS INT)),
+                       CONCAT('Category ', MOD(x, 20))
+                FROM SYSTEM_RANGE(1, CAST(? AS INT)) AS r(x)
+                """, contentLength, contentLength, posts);
+        jdbcTemplate.update("""
+                INSERT INTO tag (name)
+                SELECT CONCAT('#tag', x) FROM SYSTEM_RANGE(0, 49) AS r(x)
+                UNION ALL SELECT '#java'
+                ON CONFLICT DO NOTHING
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO post_tag (post_id, tag_id)
+                SELECT b.id, t.id FROM blog b JOIN tag t ON t.name IN (CONCAT('#tag', MOD(b.id, 50)), '#java')
+                """);
+        jdbcTemplate.execute("ALTER SEQUENCE blog_seq RESTART WITH " + (posts + 1));
+    }
+}
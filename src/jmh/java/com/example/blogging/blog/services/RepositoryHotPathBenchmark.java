@@ -0,0 +1,76 @@
+package com.example.blogging.blog.services;
+
+import com.example.blogging.blog.entities.Blog;
+import com.example.blogging.blog.repositories.BlogRepository;
+import com.example.blogging.blog.responses.BlogView;
+import com.example.blogging.blog.responses.Response;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the database paths of the service against an in-memory H2 database seeded with
+ * 1k, 100k and 1M posts of short and long content. The largest combination needs a heap of several GB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RepositoryHotPathBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int posts;
+
+    @Param({"256", "4096"})
+    public int contentLength;
+
+    private ConfigurableApplicationContext context;
+    private BlogServiceImpl blogService;
+    private BlogRepository blogRepository;
+
+    // a fixed seed, so that every run reads the same posts
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        blogService = context.getBean(BlogServiceImpl.class);
+        blogRepository = context.getBean(BlogRepository.class);
+        BenchmarkApplication.seed(context.getBean(JdbcTemplate.class), posts, contentLength);
+        random = new SplittableRandom(42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Blog findById() {
+        return blogRepository.findById(1 + random.nextInt(posts)).orElseThrow();
+    }
+
+    @Benchmark
+    public ResponseEntity<Response<List<BlogView>>> listFirstPage() {
+        return blogService.getBlogPosts(null, null, BlogServiceImpl.DEFAULT_PAGE_SIZE, null, null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<Response<List<BlogView>>> findBlogsCommonTerm() {
+        // every post matches, so the newest page is sorted out of all rows
+        return blogService.getBlogPosts("practice", null, BlogServiceImpl.DEFAULT_PAGE_SIZE, null, null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<Response<List<BlogView>>> findBlogsRareTerm() {
+        // a single post matches, so the whole table is scanned for it
+        return blogService.getBlogPosts("Post " + posts / 2 + ":", null, BlogServiceImpl.DEFAULT_PAGE_SIZE, null, null, null);
+    }
+}
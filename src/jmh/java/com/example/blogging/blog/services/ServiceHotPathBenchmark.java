@@ -0,0 +1,82 @@
+package com.example.blogging.blog.services;
+
+import com.example.blogging.blog.entities.Blog;
+import com.example.blogging.blog.entities.Tags;
+import com.example.blogging.blog.requests.BlogPost;
+import com.example.blogging.blog.responses.CreatedBlogPostData;
+import com.example.blogging.blog.responses.Response;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the CPU-only hot paths of the service: building the response of a post, validating a request,
+ * and serializing a response with the application's ObjectMapper, for posts of different content lengths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ServiceHotPathBenchmark {
+
+    @Param({"256", "4096", "65536"})
+    public int contentLength;
+
+    private ConfigurableApplicationContext context;
+    private BlogServiceImpl blogService;
+    private ObjectMapper objectMapper;
+
+    private Blog blog;
+    private BlogPost request;
+    private Response<CreatedBlogPostData> response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        blogService = context.getBean(BlogServiceImpl.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        String content = "All programmers must practice unit testing. ".repeat(contentLength / 44 + 1).substring(0, contentLength);
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        blog = new Blog();
+        blog.setId(1);
+        blog.setCreatedAt(createdAt);
+        blog.setUpdatedAt(createdAt);
+        blog.setTittle("Unit Testing");
+        blog.setContent(content);
+        blog.setCategory("Software Development");
+        blog.setTags(new Tags(List.of("#software", "#java")));
+
+        request = new BlogPost(blog.getTittle(), content, blog.getCategory(), blog.getTags().tags());
+        response = blogService.postResponse(HttpStatus.OK, blog);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Response<CreatedBlogPostData> postResponse() {
+        return blogService.postResponse(HttpStatus.OK, blog);
+    }
+
+    @Benchmark
+    public List<String> validateInputFields() {
+        return blogService.validateInputFields(request);
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.blogging.exception;
+
+import com.example.blogging.blog.metrics.BlogMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures the cost of answering a request for an unknown id, from the throw in the service to the
+ * rendered error body, with the previous error path and the current one.
+ * The exception is thrown at the given stack depth, because filling in a stack trace costs in
+ * proportion to it; a request is usually served about a hundred frames deep.
+ * Run with {@code -Djmh.args="ErrorPath -prof gc"} to see the allocations per miss as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ErrorPathBenchmark {
+
+    private static final String DETAIL = "The submitted id is not in the system";
+    private static final String PATH = "/blog/api/v1/posts/123456";
+
+    @Param({"10", "100"})
+    public int depth;
+
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        handler = new GlobalExceptionHandler(new BlogMetrics(new SimpleMeterRegistry()));
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Benchmark
+    public String before() throws Exception {
+        try {
+            throwAt(depth, () -> new LegacyException(Causes.BLOG_ID_DOES_NOT_EXIST.label, new Throwable(DETAIL)));
+            return null;
+        } catch (LegacyException exception) {
+            // the previous handler switched over the causes, then serialized a new ErrorResponse with Jackson
+            int status = GlobalExceptionHandler.statusOf(Causes.BLOG_ID_DOES_NOT_EXIST).value();
+            return objectMapper.writeValueAsString(new LegacyErrorResponse(
+                    LocalDateTime.now(), status, exception.getMessage(), exception.getCause().getMessage(), PATH));
+        }
+    }
+
+    @Benchmark
+    public String after() {
+        try {
+            throwAt(depth, () -> new BlogPostException(Causes.BLOG_ID_DOES_NOT_EXIST, DETAIL));
+            return null;
+        } catch (BlogPostException exception) {
+            return handler.body(handler.template(exception.cause), exception.getDetail(), PATH, LocalDateTime.now());
+        }
+    }
+
+    private static void throwAt(int depth, Supplier<RuntimeException> exception) {
+        if (depth == 0) throw exception.get();
+        throwAt(depth - 1, exception);
+    }
+
+    // the previous exception: a stack trace for itself and one for the Throwable that carried the detail
+    static class LegacyException extends RuntimeException {
+        LegacyException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    record LegacyErrorResponse(LocalDateTime timeStamp, int status, String error, String cause, String path) {}
+}
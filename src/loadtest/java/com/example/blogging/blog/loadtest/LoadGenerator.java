@@ -0,0 +1,310 @@
+package com.example.blogging.blog.loadtest;
+
+import com.example.blogging.blog.requests.BlogPost;
+import com.example.blogging.blog.services.BlogServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Generates load against a running instance of the posts API and reports throughput and latency percentiles.
+ * The posts are seeded through the batch endpoint first, then every worker runs on its own virtual thread
+ * and sends the next request of the mix as soon as the previous one returned (a closed loop), so the
+ * latencies are those of a saturated server with the given concurrency.
+ * Latencies of the warm-up period are discarded. The report is printed and the full percentile
+ * distribution of every operation is written as an HdrHistogram .hgrm file, in milliseconds.
+ *
+ * <p>Options are passed as {@code key=value} arguments:
+ * <ul>
+ *     <li>{@code base-url}: the URL of the application, default http://localhost:8040</li>
+ *     <li>{@code scenario}: mixed, hot-keys, broad-search or bulk-writes, default mixed</li>
+ *     <li>{@code mix}: a custom mix like read:80,search:20, overrides the weights of the scenario but keeps its key distribution</li>
+ *     <li>{@code hot-keys}: the number of hot posts, default 10</li>
+ *     <li>{@code concurrency}: the number of workers, default 64</li>
+ *     <li>{@code posts}: the number of posts to seed, default 10000</li>
+ *     <li>{@code batch-size}: the number of posts per bulk write, default 100</li>
+ *     <li>{@code warmup}, {@code duration}: like 10s or 2m, default 10s and 30s</li>
+ *     <li>{@code output}: the directory of the .hgrm files, default target/loadtest</li>
+ * </ul>
+ */
+public final class LoadGenerator {
+
+    private static final String POSTS_PATH = "/blog/api/v1/posts";
+
+    // terms that occur in the content of every seeded post
+    private static final List<String> BROAD_TERMS = List.of("programmers", "practice", "unit", "testing");
+
+    // latencies are recorded in microseconds, up to a minute with three significant digits
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Options options;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final AtomicLong written = new AtomicLong();
+    private List<Integer> ids;
+
+    LoadGenerator(Options options, ExecutorService executor) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_LATENCY_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            LoadGenerator generator = new LoadGenerator(options, executor);
+            generator.seed();
+            generator.run(executor);
+        }
+    }
+
+    /**
+     * Creates the posts that the reads and searches go to, through the batch endpoint.
+     */
+    void seed() throws IOException, InterruptedException {
+        List<Integer> seeded = new ArrayList<>(options.posts());
+
+        for (int from = 0; from < options.posts(); from += BlogServiceImpl.MAX_BATCH_SIZE) {
+            int size = Math.min(BlogServiceImpl.MAX_BATCH_SIZE, options.posts() - from);
+            HttpResponse<byte[]> response = client.send(bulkWrite(size), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 201 && response.statusCode() != 200) {
+                throw new IllegalStateException("seeding failed with status " + response.statusCode() + ": " + new String(response.body(), StandardCharsets.UTF_8));
+            }
+
+            for (JsonNode post : objectMapper.readTree(response.body()).path("data")) {
+                seeded.add(post.path("id").asInt());
+            }
+        }
+
+        if (seeded.isEmpty()) throw new IllegalStateException("no posts were seeded");
+        this.ids = List.copyOf(seeded);
+        System.out.printf("seeded %d posts%n", ids.size());
+    }
+
+    /**
+     * Runs the workers through the warm-up and the measurement, then prints and writes the report.
+     */
+    void run(ExecutorService executor) throws Exception {
+        Mix mix = options.mix();
+        System.out.printf("running %s with %d workers for %s after %s of warm-up%n",
+                mix, options.concurrency(), options.duration(), options.warmup());
+
+        long deadline = System.nanoTime() + options.warmup().toNanos() + options.duration().toNanos();
+        List<Future<?>> workers = IntStream.range(0, options.concurrency())
+                .<Future<?>>mapToObj(i -> executor.submit(() -> work(mix, deadline)))
+                .toList();
+
+        // discard the latencies of the warm-up
+        Thread.sleep(options.warmup().toMillis());
+        recorders.values().forEach(Recorder::getIntervalHistogram);
+        errors.values().forEach(LongAdder::reset);
+        long started = System.nanoTime();
+
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        report(seconds);
+    }
+
+    /**
+     * Sends requests of the mix until the deadline and records their latencies.
+     */
+    private void work(Mix mix, long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (System.nanoTime() < deadline) {
+            Operation operation = mix.pick(random);
+            HttpRequest request = request(operation, mix, random);
+
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long micros = (System.nanoTime() - start) / 1_000;
+
+            recorders.get(operation).recordValue(Math.min(micros, HIGHEST_LATENCY_MICROS));
+            if (status < 200 || status >= 300) errors.get(operation).increment();
+        }
+    }
+
+    private void report(double seconds) throws IOException {
+        Path output = Path.of(options.output());
+        Files.createDirectories(output);
+
+        Histogram total = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        long totalErrors = 0;
+
+        System.out.printf("%n%-12s %10s %10s %10s %10s %10s %10s %8s%n", "operation", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            if (histogram.getTotalCount() == 0) continue;
+
+            long operationErrors = errors.get(operation).sum();
+            printRow(operation.label(), histogram, seconds, operationErrors);
+            write(histogram, output.resolve(options.scenarioLabel() + "-" + operation.label() + ".hgrm"));
+
+            total.add(histogram);
+            totalErrors += operationErrors;
+        }
+        printRow("total", total, seconds, totalErrors);
+        write(total, output.resolve(options.scenarioLabel() + "-total.hgrm"));
+
+        System.out.printf("%nwrote %d posts during the run, histograms in %s%n", written.get(), output.toAbsolutePath());
+    }
+
+    private static void printRow(String label, Histogram histogram, double seconds, long errors) {
+        System.out.printf("%-12s %10d %10.0f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                label,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50.0) / 1000.0,
+                histogram.getValueAtPercentile(99.0) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0,
+                errors);
+    }
+
+    private static void write(Histogram histogram, Path file) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+            // scale the microseconds to milliseconds
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    // requests:
+    private HttpRequest request(Operation operation, Mix mix, ThreadLocalRandom random) {
+        return switch (operation) {
+            case READ -> {
+                int bound = mix.hotKeys() ? Math.min(options.hotKeys(), ids.size()) : ids.size();
+                yield HttpRequest.newBuilder(uri(POSTS_PATH + "/" + ids.get(random.nextInt(bound)))).GET().build();
+            }
+            case SEARCH -> {
+                String term = BROAD_TERMS.get(random.nextInt(BROAD_TERMS.size()));
+                yield HttpRequest.newBuilder(uri(POSTS_PATH + "?term=" + URLEncoder.encode(term, StandardCharsets.UTF_8))).GET().build();
+            }
+            case WRITE -> post(POSTS_PATH, newPost(written.incrementAndGet()));
+            case BULK_WRITE -> bulkWrite(options.batchSize());
+        };
+    }
+
+    private HttpRequest bulkWrite(int size) {
+        long first = written.getAndAdd(size);
+        List<BlogPost> posts = IntStream.range(0, size).mapToObj(i -> newPost(first + i)).toList();
+        return post(POSTS_PATH + "/batch", posts);
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(uri(path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create(options.baseUrl() + path);
+    }
+
+    private static BlogPost newPost(long n) {
+        return new BlogPost(
+                "Load test post " + n,
+                "Post " + n + ": " + "All programmers must practice unit testing. ".repeat(20),
+                "Category " + n % 20,
+                List.of("#tag" + n % 50, "#java")
+        );
+    }
+
+    /**
+     * The options of a load test run.
+     */
+    record Options(
+            String baseUrl,
+            Scenario scenario,
+            Mix mix,
+            int hotKeys,
+            int concurrency,
+            int posts,
+            int batchSize,
+            Duration warmup,
+            Duration duration,
+            String output
+    ) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                int separator = arg.indexOf('=');
+                if (separator < 0) throw new IllegalArgumentException("expected key=value, got " + arg);
+                values.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+
+            Scenario scenario = Scenario.parse(values.getOrDefault("scenario", "mixed"));
+            Mix mix = values.containsKey("mix") ? Mix.parse(values.get("mix"), scenario.mix.hotKeys()) : scenario.mix;
+
+            return new Options(
+                    values.getOrDefault("base-url", "http://localhost:8040"),
+                    values.containsKey("mix") ? null : scenario,
+                    mix,
+                    Integer.parseInt(values.getOrDefault("hot-keys", "10")),
+                    Integer.parseInt(values.getOrDefault("concurrency", "64")),
+                    Integer.parseInt(values.getOrDefault("posts", "10000")),
+                    Math.min(Integer.parseInt(values.getOrDefault("batch-size", "100")), BlogServiceImpl.MAX_BATCH_SIZE),
+                    duration(values.getOrDefault("warmup", "10s")),
+                    duration(values.getOrDefault("duration", "30s")),
+                    values.getOrDefault("output", "target/loadtest")
+            );
+        }
+
+        String scenarioLabel() {
+            return scenario == null ? "custom" : scenario.label();
+        }
+
+        private static Duration duration(String value) {
+            return Duration.parse("PT" + value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+}
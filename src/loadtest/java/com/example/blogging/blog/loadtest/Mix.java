@@ -0,0 +1,65 @@
+package com.example.blogging.blog.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * The share of each operation in the generated load, and whether reads go to a few hot posts.
+ *
+ * @param weights the relative weight of each operation
+ * @param hotKeys true if reads only go to the hot posts, false if they are spread over all seeded posts
+ */
+record Mix(
+        Map<Operation, Integer> weights,
+        boolean hotKeys
+) {
+
+    Mix {
+        weights = new EnumMap<>(weights);
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("the mix needs at least one operation with a positive weight");
+        }
+    }
+
+    /**
+     * Parses a mix like {@code read:80,search:15,write:5}.
+     *
+     * @param mix the operations and their weights
+     * @param hotKeys whether reads go to the hot posts
+     * @return the parsed mix
+     */
+    static Mix parse(String mix, boolean hotKeys) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) throw new IllegalArgumentException("expected operation:weight, got " + entry);
+            weights.put(Operation.parse(parts[0]), Integer.parseInt(parts[1].trim()));
+        }
+        return new Mix(weights, hotKeys);
+    }
+
+    /**
+     * Picks the next operation at random, in proportion to the weights.
+     *
+     * @param random the random generator of the calling worker
+     * @return the next operation
+     */
+    Operation pick(RandomGenerator random) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int ticket = random.nextInt(total);
+
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) return entry.getKey();
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        weights.forEach((operation, weight) -> builder.append(builder.isEmpty() ? "" : ",").append(operation.label()).append(':').append(weight));
+        return builder + (hotKeys ? " (hot keys)" : "");
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.blogging.blog.loadtest;
+
+/**
+ * The requests the load generator sends to the posts API.
+ */
+enum Operation {
+
+    // GET /{id} of a seeded post
+    READ,
+
+    // GET ?term= with a term that matches most posts
+    SEARCH,
+
+    // POST of a single post
+    WRITE,
+
+    // POST /batch of a batch of posts
+    BULK_WRITE;
+
+    String label() {
+        return name().toLowerCase().replace('_', '-');
+    }
+
+    static Operation parse(String label) {
+        return valueOf(label.trim().toUpperCase().replace('-', '_'));
+    }
+}
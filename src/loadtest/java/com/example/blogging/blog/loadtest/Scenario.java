@@ -0,0 +1,37 @@
+package com.example.blogging.blog.loadtest;
+
+import java.util.Map;
+
+import static com.example.blogging.blog.loadtest.Operation.*;
+
+/**
+ * The predefined load mixes. A custom mix can be passed with {@code mix=read:80,search:20} instead.
+ */
+enum Scenario {
+
+    // mostly reads spread over all posts, with some searches and writes
+    MIXED(new Mix(Map.of(READ, 70, SEARCH, 15, WRITE, 10, BULK_WRITE, 5), false)),
+
+    // reads of a handful of posts, which exercises the cache and request coalescing
+    HOT_KEYS(new Mix(Map.of(READ, 95, WRITE, 5), true)),
+
+    // searches for terms that match most posts, the most expensive reads
+    BROAD_SEARCH(new Mix(Map.of(SEARCH, 100), false)),
+
+    // batch inserts only
+    BULK_WRITES(new Mix(Map.of(BULK_WRITE, 100), false));
+
+    final Mix mix;
+
+    Scenario(Mix mix) {
+        this.mix = mix;
+    }
+
+    String label() {
+        return name().toLowerCase().replace('_', '-');
+    }
+
+    static Scenario parse(String label) {
+        return valueOf(label.trim().toUpperCase().replace('-', '_'));
+    }
+}
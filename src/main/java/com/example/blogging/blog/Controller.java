@@ -1,16 +1,31 @@
 package com.example.blogging.blog;
 
-import com.example.blogging.blog.entities.Blog;
+import com.example.blogging.blog.bulkhead.BulkheadStatistics;
+import com.example.blogging.blog.cache.CacheStatistics;
+import com.example.blogging.blog.cache.ResponseBytesCache;
+import com.example.blogging.blog.changes.ChangeFeed;
+import com.example.blogging.blog.coalescing.CoalescingStatistics;
+import com.example.blogging.blog.facets.Facets;
+import com.example.blogging.blog.requests.BlogPatch;
 import com.example.blogging.blog.requests.BlogPost;
+import com.example.blogging.blog.requests.BulkDelete;
+import com.example.blogging.blog.responses.BlogView;
 import com.example.blogging.blog.responses.CreatedBlogPostData;
+import com.example.blogging.blog.responses.PostChange;
+import com.example.blogging.blog.responses.PostVersion;
 import com.example.blogging.blog.responses.Response;
 import com.example.blogging.blog.services.BlogServiceImpl;
+import com.example.blogging.blog.trending.TrendingPosts;
 import com.example.blogging.exception.BlogPostException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 
 @RestController
@@ -19,6 +34,7 @@ import java.util.List;
 public class Controller {
 
     private final BlogServiceImpl blogServiceImpl;
+    private final ResponseBytesCache responseBytesCache;
 
     @PostMapping
     public ResponseEntity<Response<CreatedBlogPostData>> createBlogPost(
@@ -27,6 +43,13 @@ public class Controller {
         return blogServiceImpl.createNewBlogPost(request);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Response<List<CreatedBlogPostData>>> createBlogPosts(
+            @Validated @RequestBody List<BlogPost> requests
+    ) throws BlogPostException {
+        return blogServiceImpl.createNewBlogPosts(requests);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Response<CreatedBlogPostData>> updateBlogPost(
             @PathVariable int id,
@@ -35,6 +58,15 @@ public class Controller {
         return blogServiceImpl.updateBlogPost(id, request);
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<Response<CreatedBlogPostData>> patchBlogPost(
+            @PathVariable int id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody BlogPatch request
+    ) throws BlogPostException {
+        return blogServiceImpl.patchBlogPost(id, request, ifMatch);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<HttpStatus> deleteBlogPost(
             @PathVariable int id
@@ -42,17 +74,91 @@ public class Controller {
         return blogServiceImpl.deleteBlogPost(id);
     }
 
+    @DeleteMapping
+    public ResponseEntity<Response<Integer>> deleteBlogPosts(
+            @RequestBody BulkDelete request
+    ) throws BlogPostException {
+        return blogServiceImpl.deleteBlogPosts(request);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Response<CreatedBlogPostData>> getSingleBlogPostById(
-            @PathVariable int id
+    public ResponseEntity<?> getSingleBlogPostById(
+            @PathVariable int id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest
     ) throws BlogPostException {
+        // answer revalidations from the version alone, without loading or serializing the post;
+        // other requests load the post anyway, and its response carries the validators
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            PostVersion version = blogServiceImpl.getBlogVersion(id);
+            if (webRequest.checkNotModified(version.weakETag(), version.lastModified())) return null;
+        }
+
+        if (responseBytesCache.isEnabled()) {
+            return blogServiceImpl.getEncodedBlogPostById(id, ResponseBytesCache.acceptsGzip(acceptEncoding));
+        }
         return blogServiceImpl.getSingleBlogPostById(id);
     }
 
-    @GetMapping
-    public ResponseEntity<Response<List<Blog>>> getSingleBlogPosts(
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Response<CacheStatistics>> getCacheStatistics() {
+        return blogServiceImpl.getCacheStatistics();
+    }
+
+    @GetMapping("/bulkhead/stats")
+    public ResponseEntity<Response<List<BulkheadStatistics>>> getBulkheadStatistics() {
+        return blogServiceImpl.getBulkheadStatistics();
+    }
+
+    @GetMapping("/coalescing/stats")
+    public ResponseEntity<Response<List<CoalescingStatistics>>> getCoalescingStatistics() {
+        return blogServiceImpl.getCoalescingStatistics();
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<Response<Facets>> getFacets() {
+        return blogServiceImpl.getFacets();
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<Response<List<CreatedBlogPostData>>> getTrendingPosts(
+            @RequestParam(defaultValue = "" + TrendingPosts.DEFAULT_TRENDING) int limit
+    ) {
+        return blogServiceImpl.getTrendingPosts(limit);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<Response<List<PostChange>>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "" + ChangeFeed.DEFAULT_CHANGES) int limit
+    ) throws BlogPostException {
+        return blogServiceImpl.getChanges(since, limit);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamBlogPosts(
             @RequestParam(required = false) String term
+    ) {
+        StreamingResponseBody body = outputStream -> blogServiceImpl.streamBlogPosts(term, outputStream);
+
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping
+    public ResponseEntity<Response<List<BlogView>>> getSingleBlogPosts(
+            @RequestParam(required = false) String term,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + BlogServiceImpl.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) List<String> tag,
+            @RequestParam(defaultValue = "all") String match,
+            WebRequest webRequest
     ) throws BlogPostException {
-        return blogServiceImpl.getBlogPosts(term);
+        ResponseEntity<Response<List<BlogView>>> response = blogServiceImpl.getBlogPosts(term, cursor, limit, fields, tag, match);
+
+        // a page has no single modification time, so only its entity tag is compared
+        if (webRequest.checkNotModified(response.getHeaders().getETag())) return null;
+
+        return response;
     }
 }
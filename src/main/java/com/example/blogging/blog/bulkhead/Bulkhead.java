@@ -0,0 +1,79 @@
+package com.example.blogging.blog.bulkhead;
+
+import com.example.blogging.exception.BlogPostException;
+import com.example.blogging.exception.Causes;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One compartment of the {@link RepositoryBulkhead}: a fair semaphore that lets a bounded number of
+ * queries run at the same time and makes the others wait, up to a maximum time, for a free permit.
+ */
+class Bulkhead {
+
+    private final String name;
+    private final int permits;
+    private final long maxWaitNanos;
+    private final Semaphore semaphore;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final AtomicLong maxQueueNanos = new AtomicLong();
+
+    Bulkhead(String name, int permits, Duration maxWait) {
+        this.name = name;
+        this.permits = permits;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.semaphore = new Semaphore(permits, true);
+    }
+
+    /**
+     * Waits for a free permit.
+     *
+     * @throws BlogPostException if no permit became free within the maximum wait time
+     */
+    void acquire() throws BlogPostException {
+        long started = System.nanoTime();
+
+        boolean granted;
+        try {
+            granted = semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            granted = false;
+        }
+
+        if (!granted) {
+            rejected.increment();
+            throw new BlogPostException(Causes.SERVICE_BUSY, "Too many " + name + " queries are running, retry later");
+        }
+
+        long waited = System.nanoTime() - started;
+        acquired.increment();
+        queueNanos.add(waited);
+        maxQueueNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    void release() {
+        semaphore.release();
+    }
+
+    BulkheadStatistics statistics() {
+        long acquiredCount = acquired.sum();
+
+        return new BulkheadStatistics(
+                name,
+                permits,
+                semaphore.availablePermits(),
+                acquiredCount,
+                rejected.sum(),
+                acquiredCount == 0 ? 0 : queueNanos.sum() / 1e6 / acquiredCount,
+                maxQueueNanos.get() / 1e6
+        );
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.blogging.blog.bulkhead;
+
+/**
+ * Represents the statistics of one compartment of the {@link RepositoryBulkhead}.
+ *
+ * @param name           the name of the compartment
+ * @param permits        the number of queries that may run at the same time
+ * @param available      the number of permits that are free right now
+ * @param acquired       the number of queries that got a permit
+ * @param rejected       the number of queries rejected because no permit became free in time
+ * @param averageQueueMs the average time a query waited for its permit, in milliseconds
+ * @param maxQueueMs     the longest time a query waited for its permit, in milliseconds
+ */
+public record BulkheadStatistics(
+        String name,
+        int permits,
+        int available,
+        long acquired,
+        long rejected,
+        double averageQueueMs,
+        double maxQueueMs
+) {}
@@ -0,0 +1,14 @@
+package com.example.blogging.blog.bulkhead;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a repository query that scans many rows, such as a LIKE search or a full-table stream.
+ * The {@link RepositoryBulkhead} runs these queries on their own permits, so that a burst of them
+ * cannot take the database connections that cheap lookups by id need.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExpensiveQuery {
+}
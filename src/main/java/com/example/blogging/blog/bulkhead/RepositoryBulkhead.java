@@ -0,0 +1,116 @@
+package com.example.blogging.blog.bulkhead;
+
+import com.example.blogging.exception.BlogPostException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Limits how many database queries run at the same time: those of the Spring Data repositories of
+ * {@code com.example.blogging.blog.repositories}, and those sent through {@link JdbcOperations},
+ * such as the view flush of the {@link com.example.blogging.blog.views.ViewCounter}.
+ * With virtual threads every request gets its own thread, so the number of concurrent requests
+ * is no longer bounded by the Tomcat pool; this bulkhead bounds the database work instead.
+ * Queries marked with {@link ExpensiveQuery} and all other queries have separate permits,
+ * so slow searches cannot starve lookups by id. A query that waits longer than the maximum wait
+ * for its permit is rejected with {@code SERVICE_BUSY}, which is answered with 503.
+ * A transaction holds its connection from its first query until it completes, so the first query of a
+ * transaction takes the permit for the whole transaction and the later queries run on it; a transaction
+ * is never rejected halfway. Queries outside a transaction hold their permit for the call, or until
+ * their stream is closed. A permit then stands for a connection in use, and the permits of both
+ * compartments together should not exceed the connection pool size. Only Flyway, which runs before
+ * the application serves requests, takes connections without a permit.
+ */
+@Aspect
+@Component
+public class RepositoryBulkhead {
+
+    private final Bulkhead reads;
+    private final Bulkhead searches;
+
+    public RepositoryBulkhead(
+            @Value("${blog.bulkhead.reads.permits:8}") int readPermits,
+            @Value("${blog.bulkhead.searches.permits:2}") int searchPermits,
+            @Value("${blog.bulkhead.max-wait:1s}") Duration maxWait
+    ) {
+        this.reads = new Bulkhead("read", readPermits, maxWait);
+        this.searches = new Bulkhead("search", searchPermits, maxWait);
+    }
+
+    @Around("execution(* com.example.blogging.blog.repositories.*Repository+.*(..))"
+            + " || execution(* org.springframework.jdbc.core.JdbcOperations.*(..))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean expensive = ((MethodSignature) joinPoint.getSignature()).getMethod().isAnnotationPresent(ExpensiveQuery.class);
+        Bulkhead bulkhead = expensive ? searches : reads;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (!TransactionSynchronizationManager.hasResource(this)) holdUntilCompletion(bulkhead);
+            return joinPoint.proceed();
+        }
+
+        bulkhead.acquire();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            bulkhead.release();
+            throw e;
+        }
+
+        // a stream keeps reading from its connection until it is closed, so it keeps its permit until then
+        if (result instanceof Stream<?> stream) return stream.onClose(bulkhead::release);
+
+        bulkhead.release();
+        return result;
+    }
+
+    /**
+     * Returns the permit, queue time and rejection statistics of both compartments since startup.
+     *
+     * @return the statistics of the read and search compartments
+     */
+    public List<BulkheadStatistics> statistics() {
+        return List.of(reads.statistics(), searches.statistics());
+    }
+
+    // helper methods:
+    /**
+     * Takes a permit for the transaction of the current thread and returns it when the transaction
+     * completes. While a new transaction suspends this one, the permit is not counted for the new one.
+     *
+     * @param bulkhead the compartment of the first query of the transaction
+     * @throws BlogPostException if no permit became free within the maximum wait time
+     */
+    private void holdUntilCompletion(Bulkhead bulkhead) throws BlogPostException {
+        bulkhead.acquire();
+        TransactionSynchronizationManager.bindResource(this, bulkhead);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(RepositoryBulkhead.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(RepositoryBulkhead.this, bulkhead);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RepositoryBulkhead.this);
+                bulkhead.release();
+            }
+        });
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.blogging.blog.cache;
+
+import com.example.blogging.blog.entities.Blog;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps recently read blog posts in memory so that hot posts are served without a database round trip.
+ * The cache is bounded by entry count and time-to-live, and evicts with Caffeine's W-TinyLFU policy,
+ * which admits a new post only if it is requested more often than the post it would evict.
+ * Cached posts are shared between requests and must not be modified; writes load their own copy
+ * from the repository and invalidate the cached one. The only exception are the views, which the
+ * {@link com.example.blogging.blog.views.ViewCounter} adds to the cached post when it writes them.
+ * A reader that loaded a post before a write committed must not cache it after the write's
+ * invalidation, so every invalidation also advances a generation counter of the post's key, and a
+ * loaded post is only kept if the generation it was loaded in is still current.
+ */
+@Component
+public class BlogCache {
+
+    // generation counters of the keys, striped by id, so that the counters take a fixed amount of memory
+    private static final int GENERATION_STRIPES = 4096;
+
+    private final Cache<Integer, Blog> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public BlogCache(
+            @Value("${blog.cache.maximum-size:10000}") long maximumSize,
+            @Value("${blog.cache.time-to-live:10m}") Duration timeToLive
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached blog post with the given id.
+     *
+     * @param id the ID of the blog post
+     * @return the cached blog post, or null if it is not cached
+     */
+    public Blog getIfPresent(int id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * Returns the current generation of the post's key. Callers read it before they load the post
+     * from the repository and pass it to {@link #put(Blog, long)}.
+     *
+     * @param id the ID of the blog post
+     * @return the generation of the key
+     */
+    public long generation(int id) {
+        return generations.get(stripe(id));
+    }
+
+    /**
+     * Caches a blog post that was just read from the repository, unless the post was invalidated
+     * since the given generation or a newer version of it is cached already.
+     *
+     * @param blog the blog post to cache
+     * @param generation the generation of the key before the post was loaded
+     */
+    public void put(Blog blog, long generation) {
+        int id = blog.getId();
+        if (generations.get(stripe(id)) != generation) return;
+
+        cache.asMap().merge(id, blog, (cached, loaded) -> loaded.getVersion() > cached.getVersion() ? loaded : cached);
+
+        // an invalidation between the check and the put may have run before the put, so remove the post again
+        if (generations.get(stripe(id)) != generation) cache.asMap().remove(id, blog);
+    }
+
+    /**
+     * Adds views that were written to the database to the cached blog post, if it is cached,
+     * so that hot posts stay cached with the stored count instead of being read again.
+     * The post is looked up quietly: this is neither a read for the statistics nor a write
+     * that restarts its time-to-live.
+     *
+     * @param id the ID of the blog post
+     * @param views the number of views that were added to the views column
+     */
+    public void addViews(int id, long views) {
+        Blog cached = cache.policy().getIfPresentQuietly(id);
+        if (cached != null) cached.setViews(cached.getViews() + views);
+    }
+
+    /**
+     * Removes a blog post from the cache after it was updated or deleted.
+     *
+     * @param id the ID of the blog post
+     */
+    public void invalidate(int id) {
+        generations.incrementAndGet(stripe(id));
+        cache.invalidate(id);
+    }
+
+    /**
+     * Returns the hit, miss and eviction counts of the cache since startup.
+     *
+     * @return the statistics of the cache
+     */
+    public CacheStatistics statistics() {
+        CacheStats stats = cache.stats();
+
+        return new CacheStatistics(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate()
+        );
+    }
+
+    // helper methods:
+    private static int stripe(int id) {
+        return Math.floorMod(id, GENERATION_STRIPES);
+    }
+}
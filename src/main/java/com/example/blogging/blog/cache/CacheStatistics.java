@@ -0,0 +1,18 @@
+package com.example.blogging.blog.cache;
+
+/**
+ * Represents the statistics of the {@link BlogCache}.
+ *
+ * @param size      the approximate number of cached blog posts
+ * @param hits      the number of reads served from the cache
+ * @param misses    the number of reads that went to the repository
+ * @param evictions the number of posts evicted because of the size or time-to-live bound
+ * @param hitRate   the ratio of hits to reads, or 1.0 if there were no reads yet
+ */
+public record CacheStatistics(
+        long size,
+        long hits,
+        long misses,
+        long evictions,
+        double hitRate
+) {}
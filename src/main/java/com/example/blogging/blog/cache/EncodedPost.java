@@ -0,0 +1,177 @@
+package com.example.blogging.blog.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * The encoded JSON response of one version of a blog post, ready to be written to the client.
+ * The view count is the last field of the body and changes with every read, so the body is kept
+ * as the bytes before the count and the count is spliced in per response.
+ * The gzip variant keeps the compressed bytes before the count as well: they end with a sync flush,
+ * so the count and the closing brackets can follow as a final stored block, after which only
+ * the CRC-32 and the length of the whole body have to be computed.
+ */
+public final class EncodedPost {
+
+    private static final byte[] SUFFIX = "}}".getBytes(StandardCharsets.US_ASCII);
+
+    // gzip header: magic, DEFLATE, no flags, no modification time, no extra flags, unknown OS
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private static final int[] CRC_TABLE = new int[256];
+
+    static {
+        for (int n = 0; n < 256; n++) {
+            int c = n;
+            for (int k = 0; k < 8; k++) {
+                c = (c & 1) != 0 ? 0xedb88320 ^ (c >>> 1) : c >>> 1;
+            }
+            CRC_TABLE[n] = c;
+        }
+    }
+
+    private final byte[] prefix;
+    private final byte[] gzipPrefix;
+    private final int prefixCrc;
+
+    private EncodedPost(byte[] prefix, byte[] gzipPrefix, int prefixCrc) {
+        this.prefix = prefix;
+        this.gzipPrefix = gzipPrefix;
+        this.prefixCrc = prefixCrc;
+    }
+
+    /**
+     * Splits the JSON response of a blog post before its view count and compresses the first part.
+     *
+     * @param json the encoded response, ending with the view count and the closing brackets
+     * @param views the view count the response was encoded with
+     * @return the encoded post
+     * @throws IllegalStateException if the response does not end with the view count
+     */
+    static EncodedPost of(byte[] json, long views) {
+        byte[] tail = tail(views);
+        int prefixLength = json.length - tail.length;
+        if (prefixLength < 0 || !Arrays.equals(json, prefixLength, json.length, tail, 0, tail.length)) {
+            throw new IllegalStateException("the view count is not the last field of the response");
+        }
+
+        byte[] prefix = Arrays.copyOf(json, prefixLength);
+        CRC32 crc = new CRC32();
+        crc.update(prefix);
+
+        return new EncodedPost(prefix, gzipPrefix(prefix), (int) crc.getValue());
+    }
+
+    /**
+     * Returns the uncompressed response.
+     *
+     * @param views the current view count of the post
+     * @return the JSON response
+     */
+    public byte[] identity(long views) {
+        byte[] tail = tail(views);
+        byte[] body = Arrays.copyOf(prefix, prefix.length + tail.length);
+        System.arraycopy(tail, 0, body, prefix.length, tail.length);
+        return body;
+    }
+
+    /**
+     * Returns the gzip-compressed response.
+     *
+     * @param views the current view count of the post
+     * @return the gzip stream of the JSON response
+     */
+    public byte[] gzip(long views) {
+        byte[] tail = tail(views);
+        int crc = crc32(prefixCrc, tail);
+        int size = prefix.length + tail.length;
+
+        byte[] body = Arrays.copyOf(gzipPrefix, gzipPrefix.length + 5 + tail.length + 8);
+        int position = gzipPrefix.length;
+
+        // final stored block: BFINAL set, BTYPE 00, then LEN and its complement
+        body[position++] = 1;
+        position = writeShort(body, position, tail.length);
+        position = writeShort(body, position, ~tail.length);
+        System.arraycopy(tail, 0, body, position, tail.length);
+        position += tail.length;
+
+        // trailer: CRC-32 and length of the uncompressed data
+        position = writeInt(body, position, crc);
+        writeInt(body, position, size);
+        return body;
+    }
+
+    /**
+     * Returns the number of bytes the encoded post keeps in memory.
+     *
+     * @return the size of the encoded post in bytes
+     */
+    int weight() {
+        return prefix.length + gzipPrefix.length;
+    }
+
+    // helper methods:
+    private static byte[] tail(long views) {
+        byte[] count = Long.toString(views).getBytes(StandardCharsets.US_ASCII);
+        byte[] tail = Arrays.copyOf(count, count.length + SUFFIX.length);
+        System.arraycopy(SUFFIX, 0, tail, count.length, SUFFIX.length);
+        return tail;
+    }
+
+    /**
+     * Compresses the given bytes into a gzip header and DEFLATE blocks that end with a sync flush,
+     * so that more blocks can be appended at a byte boundary.
+     *
+     * @param bytes the bytes to compress
+     * @return the unfinished gzip stream
+     */
+    private static byte[] gzipPrefix(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(bytes);
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2);
+            output.writeBytes(GZIP_HEADER);
+            byte[] buffer = new byte[8192];
+            int deflated;
+            do {
+                deflated = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                output.write(buffer, 0, deflated);
+            } while (deflated == buffer.length);
+
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Continues a CRC-32 over more bytes, like zlib's crc32(crc, buf, len).
+     *
+     * @param crc the CRC-32 of the bytes so far
+     * @param bytes the following bytes
+     * @return the CRC-32 of all bytes
+     */
+    private static int crc32(int crc, byte[] bytes) {
+        int c = ~crc;
+        for (byte b : bytes) {
+            c = CRC_TABLE[(c ^ b) & 0xff] ^ (c >>> 8);
+        }
+        return ~c;
+    }
+
+    private static int writeShort(byte[] bytes, int position, int value) {
+        bytes[position] = (byte) value;
+        bytes[position + 1] = (byte) (value >>> 8);
+        return position + 2;
+    }
+
+    private static int writeInt(byte[] bytes, int position, int value) {
+        position = writeShort(bytes, position, value);
+        return writeShort(bytes, position, value >>> 16);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.blogging.blog.cache;
+
+import com.example.blogging.blog.responses.CreatedBlogPostData;
+import com.example.blogging.blog.responses.PostVersion;
+import com.example.blogging.blog.responses.Response;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps the encoded JSON responses of recently read blog posts, so that reading a hot post
+ * neither builds the response object nor runs Jackson again.
+ * Entries are keyed by {@link PostVersion}, the id and update time of the post, so an updated post
+ * gets a new entry and a stale one is never served; old versions are evicted like cold posts.
+ * The cache is bounded by the bytes it keeps, identity and gzip variants together.
+ */
+@Component
+public class ResponseBytesCache {
+
+    // the approximate memory of an entry besides its bytes
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final Cache<PostVersion, EncodedPost> cache;
+
+    public ResponseBytesCache(
+            @Value("${blog.cache.response-bytes.enabled:false}") boolean enabled,
+            @Value("${blog.cache.response-bytes.maximum-size:64MB}") DataSize maximumSize,
+            ObjectMapper objectMapper
+    ) {
+        this.enabled = enabled;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((PostVersion version, EncodedPost post) -> post.weight() + ENTRY_OVERHEAD)
+                .build();
+    }
+
+    /**
+     * Tells whether the responses of single posts are served from this cache.
+     *
+     * @return true if the cache is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the encoded response of the given version of a blog post, encoding it on a miss.
+     *
+     * @param version the version of the blog post
+     * @param response builds the response on a miss
+     * @return the encoded response
+     */
+    public EncodedPost get(PostVersion version, Supplier<Response<CreatedBlogPostData>> response) {
+        return cache.get(version, key -> encode(response.get()));
+    }
+
+    /**
+     * Tells whether a client accepts a gzip-compressed response.
+     *
+     * @param acceptEncoding the value of the Accept-Encoding header, or null
+     * @return true if the header lists gzip, or *, without a quality of zero
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) continue;
+
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (!parameter.startsWith("q=")) continue;
+                try {
+                    refused = Double.parseDouble(parameter.substring(2)) == 0;
+                } catch (NumberFormatException e) {
+                    refused = true;
+                }
+            }
+            return !refused;
+        }
+        return false;
+    }
+
+    private EncodedPost encode(Response<CreatedBlogPostData> response) {
+        try {
+            return EncodedPost.of(objectMapper.writeValueAsBytes(response), response.getData().getViews());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("could not encode the response of post " + response.getData().getId(), e);
+        }
+    }
+}
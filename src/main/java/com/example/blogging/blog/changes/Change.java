@@ -0,0 +1,30 @@
+package com.example.blogging.blog.changes;
+
+import com.example.blogging.blog.entities.Blog;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents one entry of the change feed: a created or updated post, or the tombstone of a deleted one.
+ *
+ * @param changeSeq the position of the change in the feed
+ * @param postId    the ID of the blog post
+ * @param changedAt the time of the change
+ * @param blog      the current state of the blog post, or null if it was deleted
+ */
+public record Change(
+        long changeSeq,
+        int postId,
+        LocalDateTime changedAt,
+        Blog blog
+) {
+
+    /**
+     * Checks whether this change is the deletion of the blog post.
+     *
+     * @return true if the blog post was deleted
+     */
+    public boolean deleted() {
+        return blog == null;
+    }
+}
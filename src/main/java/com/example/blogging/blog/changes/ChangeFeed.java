@@ -0,0 +1,145 @@
+package com.example.blogging.blog.changes;
+
+import com.example.blogging.blog.pagination.ChangeCursor;
+import com.example.blogging.blog.repositories.BlogRepository;
+import com.example.blogging.blog.repositories.TombstoneRepository;
+import com.example.blogging.exception.BlogPostException;
+import com.example.blogging.exception.Causes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lists the blog posts created, updated or deleted since a position, so that clients can sync
+ * incrementally instead of reading all posts again.
+ * Every write draws a number from the change_seq sequence: posts keep the number of their last
+ * change in the change_seq column, deleted posts leave a tombstone with theirs. A page is the rows
+ * of both after the position, read through their change_seq indexes, so a sync reads the changes
+ * and not the table.
+ * Numbers are drawn when a transaction writes, not when it commits, so a change may become visible
+ * after a change with a larger number. Pages therefore end before changes younger than the settle
+ * time, which must be longer than the write transactions.
+ * Tombstones are purged after the retention; cursors that may have missed purged tombstones expire.
+ */
+@Component
+public class ChangeFeed {
+
+    // the number of changes a page has by default
+    public static final int DEFAULT_CHANGES = 100;
+
+    // the largest number of changes on a page
+    public static final int MAX_CHANGES = 1000;
+
+    private final BlogRepository blogRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final Duration settleTime;
+    private final Duration tombstoneRetention;
+    private final Clock clock;
+
+    @Autowired
+    public ChangeFeed(
+            BlogRepository blogRepository,
+            TombstoneRepository tombstoneRepository,
+            @Value("${blog.changes.settle-time:5s}") Duration settleTime,
+            @Value("${blog.changes.tombstone-retention:30d}") Duration tombstoneRetention
+    ) {
+        this(blogRepository, tombstoneRepository, settleTime, tombstoneRetention, Clock.systemDefaultZone());
+    }
+
+    ChangeFeed(BlogRepository blogRepository, TombstoneRepository tombstoneRepository, Duration settleTime, Duration tombstoneRetention, Clock clock) {
+        this.blogRepository = blogRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.settleTime = settleTime;
+        this.tombstoneRetention = tombstoneRetention;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the position before the first change, for a client that starts syncing.
+     *
+     * @return the cursor of the start of the feed
+     */
+    public ChangeCursor start() {
+        return new ChangeCursor(0, LocalDateTime.now(clock));
+    }
+
+    /**
+     * Reads the changes after the given position, in the order they were made.
+     * Reads from the primary: the settle time covers the transactions still committing there,
+     * not the lag of a replica.
+     *
+     * @param after the position to read from
+     * @param limit the maximum number of changes, at most {@link #MAX_CHANGES}
+     * @return the changes and the position to continue from
+     * @throws BlogPostException if the tombstones after the position may have been purged
+     */
+    @Transactional
+    public ChangePage changesAfter(ChangeCursor after, int limit) throws BlogPostException {
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (after.caughtUpAt().isBefore(now.minus(tombstoneRetention))) {
+            throw new BlogPostException(Causes.INVALID_CURSOR, "The submitted cursor has expired, read all posts again and start over without a cursor");
+        }
+
+        // posts and tombstones share the sequence, so the first changes of the feed are among the first of each
+        Pageable page = PageRequest.of(0, limit);
+        List<Change> changes = new ArrayList<>();
+        blogRepository.findChangedAfter(after.changeSeq(), page)
+                .forEach(blog -> changes.add(new Change(blog.getChangeSeq(), blog.getId(), blog.getUpdatedAt(), blog)));
+        tombstoneRepository.findTombstonesAfter(after.changeSeq(), page)
+                .forEach(tombstone -> changes.add(new Change(tombstone.getChangeSeq(), tombstone.getPostId(), tombstone.getDeletedAt(), null)));
+        changes.sort(Comparator.comparingLong(Change::changeSeq));
+
+        // stop before the first unsettled change, a change with a smaller number may still commit
+        LocalDateTime settled = now.minus(settleTime);
+        int end = 0;
+        while (end < Math.min(limit, changes.size()) && !changes.get(end).changedAt().isAfter(settled)) end++;
+        List<Change> read = List.copyOf(changes.subList(0, end));
+
+        // a short page reached the newest changes, everything after it is made from now on
+        long position = read.isEmpty() ? after.changeSeq() : read.getLast().changeSeq();
+        LocalDateTime caughtUpAt = read.size() < limit ? now : after.caughtUpAt();
+
+        return new ChangePage(read, new ChangeCursor(position, caughtUpAt));
+    }
+
+    /**
+     * Leaves tombstones for blog posts that are about to be deleted, in the transaction of the delete.
+     * Ids of posts that do not exist get no tombstone.
+     *
+     * @param ids the ids of the blog posts to delete
+     */
+    public void recordDeletes(Collection<Integer> ids) {
+        tombstoneRepository.insertTombstones(ids, LocalDateTime.now(clock));
+    }
+
+    /**
+     * Leaves a tombstone for a blog post that was just deleted, in the transaction of the delete.
+     *
+     * @param id the ID of the deleted blog post
+     */
+    public void recordDelete(int id) {
+        tombstoneRepository.insertTombstone(id, LocalDateTime.now(clock));
+    }
+
+    /**
+     * Deletes the tombstones older than the retention. Cursors that could still need them have expired,
+     * the settle time is added so that no cursor outlives a tombstone it may still need.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${blog.changes.purge-interval:PT1H}")
+    public void purge() {
+        tombstoneRepository.deleteTombstonesBefore(LocalDateTime.now(clock).minus(tombstoneRetention).minus(settleTime));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.blogging.blog.changes;
+
+import com.example.blogging.blog.pagination.ChangeCursor;
+
+import java.util.List;
+
+/**
+ * Represents one page of the change feed.
+ *
+ * @param changes the changes after the requested position, in the order they were made
+ * @param next    the position to continue from; it stays at the requested position if there were no changes
+ */
+public record ChangePage(
+        List<Change> changes,
+        ChangeCursor next
+) {}
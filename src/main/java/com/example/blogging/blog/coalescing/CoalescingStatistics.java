@@ -0,0 +1,16 @@
+package com.example.blogging.blog.coalescing;
+
+/**
+ * Represents the statistics of a {@link SingleFlight}.
+ *
+ * @param name      the name of the single flight
+ * @param calls     the number of calls
+ * @param coalesced the number of calls that joined a call in flight instead of running their own
+ * @param inFlight  the number of distinct calls running right now
+ */
+public record CoalescingStatistics(
+        String name,
+        long calls,
+        long coalesced,
+        int inFlight
+) {}
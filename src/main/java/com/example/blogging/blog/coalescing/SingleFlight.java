@@ -0,0 +1,87 @@
+package com.example.blogging.blog.coalescing;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key: the first caller runs the call, the callers that
+ * arrive while it runs wait for it and get the same result or exception.
+ * A finished call is forgotten right away, so this is not a cache; later callers run the call again.
+ * Calls in flight are kept in a {@link ConcurrentHashMap}, so callers with different keys never contend,
+ * and callers with the same key only contend on the insertion of the leader's future.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the results
+ */
+public class SingleFlight<K, V> {
+
+    private final String name;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Runs the call for the given key, or waits for the call with the same key that is already running.
+     *
+     * @param key the key of the call
+     * @param call the call to run if none is running for the key
+     * @return the result of the call
+     * @throws RuntimeException the exception thrown by the call
+     */
+    public V execute(K key, Supplier<V> call) {
+        calls.increment();
+
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, leader);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        try {
+            V result = call.get();
+            leader.complete(result);
+
+            return result;
+        } catch (RuntimeException | Error e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    /**
+     * Returns how many calls were made and how many of them were coalesced since startup.
+     *
+     * @return the statistics of this single flight
+     */
+    public CoalescingStatistics statistics() {
+        return new CoalescingStatistics(name, calls.sum(), coalesced.sum(), inFlight.size());
+    }
+
+    // helper methods:
+    /**
+     * Waits for the result of a call run by another caller, rethrowing its exception unchanged.
+     *
+     * @param running the future of the running call
+     * @return the result of the call
+     */
+    private V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.blogging.blog.datasource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the connections of read-only transactions to the replica databases, round robin,
+ * and all other connections to the primary database.
+ * The routing is decided when the connection is taken from the pool, so the data source has to be
+ * wrapped in a LazyConnectionDataSourceProxy: the transaction manager takes the connection before
+ * it marks the transaction read-only, the proxy delays taking it until the first statement.
+ * Reads of clients that wrote recently go to the primary as well, see {@link ReadYourWrites}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica-";
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        if (replicas.isEmpty()) throw new IllegalArgumentException("at least one replica is needed");
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(REPLICA + i, replicas.get(i));
+        }
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!readOnly || ReadYourWrites.isPrimaryRequired()) return PRIMARY;
+
+        return REPLICA + Math.floorMod(next.getAndIncrement(), replicas.size());
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        // the pools are not beans of their own, so close them with this data source
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable closeable) closeable.close();
+        }
+        if (primary instanceof Closeable closeable) closeable.close();
+    }
+}
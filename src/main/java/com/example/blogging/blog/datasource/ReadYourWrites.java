@@ -0,0 +1,34 @@
+package com.example.blogging.blog.datasource;
+
+/**
+ * Marks the requests of clients that wrote recently, whose reads must go to the primary database
+ * because the replicas may not have their writes yet. Set by the {@link ReadYourWritesFilter}
+ * for the thread that serves the request, read by the {@link ReadWriteRoutingDataSource}.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Sends all reads of the current thread to the primary database, until {@link #clear()}.
+     */
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    /**
+     * Tells whether the reads of the current thread must go to the primary database.
+     *
+     * @return true if the current request comes from a client that wrote recently
+     */
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
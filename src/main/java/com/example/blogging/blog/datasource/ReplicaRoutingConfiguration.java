@@ -0,0 +1,79 @@
+package com.example.blogging.blog.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single data source with one that routes read-only transactions to read replicas,
+ * when {@code blog.datasource.replica-urls} lists at least one replica.
+ * The primary is configured by the usual {@code spring.datasource} properties, the replicas use the
+ * same credentials and pool settings with their own URL.
+ * Repository reads run in read-only transactions and go to a replica; the service's writes run in
+ * read-write transactions and go to the primary, together with every read inside them.
+ * A post that is read from a lagging replica right after it was written by another client can be
+ * cached in its old version until it is written again or expires from the cache.
+ */
+@Configuration
+@ConditionalOnProperty(name = "blog.datasource.replica-urls")
+public class ReplicaRoutingConfiguration {
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            @Value("${blog.datasource.replica-urls}") List<String> replicaUrls
+    ) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            replicas.add(pool(properties, environment, ReadWriteRoutingDataSource.REPLICA + i, replicaUrls.get(i).trim()));
+        }
+
+        return new ReadWriteRoutingDataSource(pool(properties, environment, ReadWriteRoutingDataSource.PRIMARY, properties.determineUrl()), replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(@Value("${blog.datasource.read-your-writes-window:5s}") Duration window) {
+        return new ReadYourWritesFilter(window);
+    }
+
+    // helper methods:
+    /**
+     * Creates a connection pool with the spring.datasource.hikari settings for the given database.
+     *
+     * @param properties the properties of the primary data source
+     * @param environment the environment to bind the pool settings from
+     * @param name the name of the pool
+     * @param url the JDBC URL of the database
+     * @return the connection pool
+     */
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment, String name, String url) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+
+        return pool;
+    }
+}
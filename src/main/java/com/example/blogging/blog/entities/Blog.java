@@ -2,10 +2,12 @@ package com.example.blogging.blog.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.proxy.HibernateProxy;
 import java.time.LocalDateTime;
 
 @Entity
+@DynamicUpdate
 @Setter
 @Getter
 @ToString
@@ -13,19 +15,39 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Blog {
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "blog_seq")
+    @SequenceGenerator(name = "blog_seq", sequenceName = "blog_seq", allocationSize = 50)
     private int id;
 
+    // incremented by every update, so that concurrent writers cannot overwrite each other's changes
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
     private String tittle;
+
+    // long posts are stored compressed when blog.content.compression.enabled is set
+    @Convert(converter = CompressedContentConverter.class)
+    @Column(columnDefinition = "text")
     private String content;
     private String category;
     
     @Embedded
     private Tags tags;
 
+    // written only by the ViewCounter, so that saving a post never overwrites the counted views;
+    // volatile because the flushed views are added to the cached instance while requests read it
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private volatile long views;
+
+    // the position of the last change in the change feed, drawn from change_seq by the database:
+    // by the column default on insert, and by BlogRepository.touchChangeSeq on update
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long changeSeq;
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,63 @@
+package com.example.blogging.blog.entities;
+
+import com.example.blogging.exception.BlogPostException;
+import com.example.blogging.exception.Causes;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Lists the fields of a blog post that clients can select with the fields= parameter,
+ * together with the JPQL path of the {@link Blog} attribute each field is read from.
+ */
+public enum BlogField {
+    ID("id", "p.id"),
+    TITLE("title", "p.tittle"),
+    CONTENT("content", "p.content"),
+    CATEGORY("category", "p.category"),
+    TAGS("tags", "p.tags"),
+    CREATED_AT("createdAt", "p.createdAt"),
+    UPDATED_AT("updatedAt", "p.updatedAt");
+
+    /**
+     * The fields returned when none are selected: everything except the content,
+     * which is by far the largest column and is not needed to render a list of posts.
+     */
+    public static final Set<BlogField> SUMMARY = EnumSet.complementOf(EnumSet.of(CONTENT));
+
+    public final String label;
+    public final String path;
+
+    BlogField(String label, String path) {
+        this.label = label;
+        this.path = path;
+    }
+
+    /**
+     * Parses the value of the fields= parameter.
+     *
+     * @param fields a comma-separated list of field names, "all", or null/empty for the summary fields
+     * @return the selected fields, always including the id
+     * @throws BlogPostException if a field name is unknown
+     */
+    public static Set<BlogField> parse(String fields) throws BlogPostException {
+        if (fields == null || fields.isBlank()) return SUMMARY;
+        if (fields.trim().equalsIgnoreCase("all")) return EnumSet.allOf(BlogField.class);
+
+        Set<BlogField> selected = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            selected.add(of(name.trim()));
+        }
+
+        return selected;
+    }
+
+    private static BlogField of(String name) throws BlogPostException {
+        for (BlogField field : values()) {
+            if (field.label.toLowerCase(Locale.ROOT).equals(name.toLowerCase(Locale.ROOT))) return field;
+        }
+
+        throw new BlogPostException(Causes.INVALID_FIELDS, "Unknown field: " + name);
+    }
+}
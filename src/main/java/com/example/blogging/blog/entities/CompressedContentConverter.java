@@ -0,0 +1,117 @@
+package com.example.blogging.blog.entities;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses the content of long blog posts before it is written to the database.
+ * Content of at least the threshold size is stored as the {@link #MARKER} followed by its
+ * base64-encoded DEFLATE stream, shorter content and content that does not shrink is stored as is.
+ * Reading checks for the marker, so rows written before compression was enabled, or after it was
+ * disabled again, stay readable.
+ * Compressed content no longer matches the LIKE queries of the repository, so compression cannot be
+ * enabled together with {@code blog.search.engine=like}; the inverted index indexes the decompressed text.
+ */
+@Component
+@Converter
+public class CompressedContentConverter implements AttributeConverter<String, String> {
+
+    // a control character that never starts the content of a post, followed by the format version
+    static final String MARKER = "\u0001z1:";
+
+    private final boolean enabled;
+    private final int threshold;
+
+    public CompressedContentConverter(
+            @Value("${blog.content.compression.enabled:false}") boolean enabled,
+            @Value("${blog.content.compression.threshold:2048}") int threshold,
+            @Value("${blog.search.engine:index}") String searchEngine
+    ) {
+        if (enabled && "like".equals(searchEngine)) {
+            throw new IllegalStateException("blog.content.compression.enabled requires blog.search.engine=index, the LIKE search cannot match compressed content");
+        }
+
+        this.enabled = enabled;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String content) {
+        if (!enabled || content == null || content.length() < threshold) return content;
+
+        String compressed = MARKER + Base64.getEncoder().encodeToString(deflate(content.getBytes(StandardCharsets.UTF_8)));
+
+        // keep content that does not compress well, it is cheaper to read as is
+        return compressed.length() < content.length() ? compressed : content;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String column) {
+        if (column == null || !column.startsWith(MARKER)) return column;
+
+        byte[] compressed = Base64.getDecoder().decode(column.substring(MARKER.length()));
+        return new String(inflate(compressed), StandardCharsets.UTF_8);
+    }
+
+    // helper methods:
+    /**
+     * Compresses the given bytes into a DEFLATE stream.
+     *
+     * @param bytes the bytes to compress
+     * @return the compressed bytes
+     */
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompresses the given DEFLATE stream.
+     *
+     * @param compressed the compressed bytes
+     * @return the decompressed bytes
+     * @throws IllegalStateException if the stream is corrupt
+     */
+    private static byte[] inflate(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                if (inflated == 0 && inflater.needsInput()) throw new IllegalStateException("truncated compressed content");
+                output.write(buffer, 0, inflated);
+            }
+
+            return output.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("corrupt compressed content", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.blogging.blog.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Links a blog post to a tag of the {@link Tag} dictionary.
+ * The primary key (post_id, tag_id) finds the tags of a post, the (tag_id, post_id) index
+ * finds the posts of a tag without reading the post table.
+ */
+@Entity
+@Table(name = "post_tag", indexes = @Index(name = "post_tag_tag_id_post_id_idx", columnList = "tag_id, post_id"))
+@Setter
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostTag {
+    @EmbeddedId
+    private PostTagId id;
+}
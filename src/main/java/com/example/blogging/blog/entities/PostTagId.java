@@ -0,0 +1,16 @@
+package com.example.blogging.blog.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * The primary key of a {@link PostTag}.
+ *
+ * @param postId the ID of the blog post
+ * @param tagId  the ID of the tag
+ */
+@Embeddable
+public record PostTagId(
+        @Column(name = "post_id") int postId,
+        @Column(name = "tag_id") int tagId
+) {}
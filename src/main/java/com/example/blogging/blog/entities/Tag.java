@@ -0,0 +1,25 @@
+package com.example.blogging.blog.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * An entry of the tag dictionary. Every distinct tag name is stored once and referenced by its id
+ * from the {@link PostTag} join rows, so tag filters compare integers instead of strings.
+ */
+@Entity
+@Table(name = "tag", uniqueConstraints = @UniqueConstraint(name = "tag_name_key", columnNames = "name"))
+@Setter
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tag {
+    // tags are inserted with a native INSERT ... ON CONFLICT, which leaves the id to the database
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @Column(nullable = false)
+    private String name;
+}
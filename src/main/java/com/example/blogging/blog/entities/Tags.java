@@ -1,9 +1,19 @@
 package com.example.blogging.blog.entities;
 
 import jakarta.persistence.Embeddable;
+import org.hibernate.annotations.Formula;
 
 import java.util.List;
+
+/**
+ * The tags of a blog post. They are read from the post_tag links of the post, which the
+ * {@link com.example.blogging.blog.tags.TagStore} writes, so the names come back normalized and sorted;
+ * saving a post never writes them. A post without tags reads back as null tags.
+ *
+ * @param tags the names of the tags
+ */
 @Embeddable
 public record Tags(
+        @Formula("(SELECT ARRAY_AGG(t.name ORDER BY t.name) FROM post_tag pt JOIN tag t ON t.id = pt.tag_id WHERE pt.post_id = id)")
         List<String> tags
 ) {}
@@ -0,0 +1,30 @@
+package com.example.blogging.blog.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Marks a deleted blog post in the change feed. The row of the post is gone, so the tombstone
+ * carries its id and a position drawn from the same change_seq sequence as the posts.
+ * Tombstones are inserted with a native INSERT ... SELECT and purged after the retention.
+ */
+@Entity
+@Table(name = "blog_tombstone")
+@Setter
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tombstone {
+    // drawn by the column default, the tombstones are never saved through the entity
+    @Id
+    @Column(insertable = false, updatable = false)
+    private long changeSeq;
+
+    @Column(nullable = false)
+    private int postId;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,12 @@
+package com.example.blogging.blog.facets;
+
+/**
+ * The number of blog posts with one category or tag, as counted by a GROUP BY query.
+ *
+ * @param value the category or the normalized tag name
+ * @param count the number of blog posts
+ */
+public record FacetCount(
+        String value,
+        long count
+) {}
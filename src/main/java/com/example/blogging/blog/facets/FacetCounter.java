@@ -0,0 +1,184 @@
+package com.example.blogging.blog.facets;
+
+import com.example.blogging.blog.entities.Tags;
+import com.example.blogging.blog.repositories.BlogRepository;
+import com.example.blogging.blog.repositories.PostTagRepository;
+import com.example.blogging.blog.tags.TagStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the blog posts per category and per tag in memory, so that facet sidebars are served
+ * in proportion to the number of categories and tags instead of the number of posts.
+ * The service adjusts the counts after every committed write; each count is a {@link LongAdder},
+ * whose striped cells let concurrent writers increment the same category without contending.
+ * The counts are corrected to GROUP BY counts from the database at startup and periodically,
+ * which repairs any drift from writes that were committed but not counted, e.g. by another instance.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FacetCounter {
+
+    private final BlogRepository blogRepository;
+    private final PostTagRepository postTagRepository;
+
+    private final ConcurrentMap<String, LongAdder> categories = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> tags = new ConcurrentHashMap<>();
+
+    /**
+     * Counts a blog post that was created, or the new state of a post that was updated.
+     *
+     * @param category the category of the post
+     * @param tags the tags of the post
+     */
+    public void add(String category, Tags tags) {
+        adjust(category, tags, 1);
+    }
+
+    /**
+     * Uncounts the old state of a blog post that was updated.
+     *
+     * @param category the old category of the post
+     * @param tags the old tags of the post
+     */
+    public void remove(String category, Tags tags) {
+        adjust(category, tags, -1);
+    }
+
+    /**
+     * Counts the categories and tags of the given blog posts in the database.
+     * Posts are deleted with set-based statements that never load them, so the service
+     * calls this before deleting them and {@link #subtract(Facets)} once the delete is committed.
+     *
+     * @param postIds the ids of the blog posts
+     * @return the number of the given posts per category and tag
+     */
+    public Facets countPosts(Collection<Integer> postIds) {
+        return new Facets(
+                toMap(blogRepository.countCategoriesByIds(postIds)),
+                toMap(postTagRepository.countTagsByPostIds(postIds))
+        );
+    }
+
+    /**
+     * Counts a blog post that was just deleted, from its category and the tag links it left behind.
+     *
+     * @param category the category of the deleted post
+     * @param postId the ID of the deleted post, whose tags are not detached yet
+     * @return the number of posts per category and tag, 1 for the post's own ones
+     */
+    public Facets countDeletedPost(String category, int postId) {
+        return new Facets(
+                category == null ? Map.of() : Map.of(category, 1L),
+                toMap(postTagRepository.countTagsByPostIds(List.of(postId)))
+        );
+    }
+
+    /**
+     * Uncounts deleted blog posts.
+     *
+     * @param deleted the number of deleted posts per category and tag
+     */
+    public void subtract(Facets deleted) {
+        deleted.categories().forEach((category, count) -> counter(categories, category).add(-count));
+        deleted.tags().forEach((tag, count) -> counter(tags, tag).add(-count));
+    }
+
+    /**
+     * Returns the current counts, leaving out categories and tags that no post has anymore.
+     *
+     * @return the number of posts per category and tag, sorted by name
+     */
+    public Facets facets() {
+        return new Facets(snapshot(categories), snapshot(tags));
+    }
+
+    /**
+     * Brings the counts in line with the counts of the database, at startup and then at a fixed interval.
+     * The tag links it counts are backfilled by a Flyway migration, which has run before the application is ready.
+     * The counters are corrected in place rather than replaced, so adjustments that arrive while
+     * the queries run are kept on top of the counts of the database instead of being dropped.
+     * A write that was committed before the queries but counted after them is counted twice
+     * until the next reconciliation, so the counts are exact only between writes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${blog.facets.reconcile-interval:PT5M}", initialDelayString = "${blog.facets.reconcile-interval:PT5M}")
+    public void reconcile() {
+        long started = System.nanoTime();
+
+        // what the counters held before the queries is replaced by the database, anything added since is kept
+        Map<String, Long> countedCategories = sums(categories);
+        Map<String, Long> countedTags = sums(tags);
+        Map<String, Long> reconciledCategories = toMap(blogRepository.countCategories());
+        Map<String, Long> reconciledTags = toMap(postTagRepository.countTags());
+        correct(categories, countedCategories, reconciledCategories);
+        correct(tags, countedTags, reconciledTags);
+
+        log.debug("Reconciled {} category and {} tag counts in {} ms",
+                reconciledCategories.size(), reconciledTags.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // helper methods:
+    private void adjust(String category, Tags postTags, int delta) {
+        if (category != null) counter(categories, category).add(delta);
+        for (String tag : TagStore.names(postTags)) {
+            counter(tags, tag).add(delta);
+        }
+    }
+
+    private static LongAdder counter(ConcurrentMap<String, LongAdder> counters, String key) {
+        // the lock-free get covers the common case of a known key, computeIfAbsent only runs for new keys
+        LongAdder counter = counters.get(key);
+        return counter != null ? counter : counters.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private static Map<String, Long> snapshot(ConcurrentMap<String, LongAdder> counters) {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((key, counter) -> {
+            long count = counter.sum();
+            if (count > 0) snapshot.put(key, count);
+        });
+
+        return snapshot;
+    }
+
+    private static Map<String, Long> toMap(List<FacetCount> counts) {
+        Map<String, Long> map = new TreeMap<>();
+        counts.forEach(count -> {
+            if (count.value() != null) map.put(count.value(), count.count());
+        });
+
+        return map;
+    }
+
+    private static Map<String, Long> sums(ConcurrentMap<String, LongAdder> counters) {
+        Map<String, Long> sums = new HashMap<>();
+        counters.forEach((key, counter) -> sums.put(key, counter.sum()));
+
+        return sums;
+    }
+
+    private static void correct(ConcurrentMap<String, LongAdder> counters, Map<String, Long> counted, Map<String, Long> reconciled) {
+        counted.forEach((key, count) -> {
+            long correction = reconciled.getOrDefault(key, 0L) - count;
+            if (correction != 0) counter(counters, key).add(correction);
+        });
+        reconciled.forEach((key, count) -> {
+            if (!counted.containsKey(key)) counter(counters, key).add(count);
+        });
+    }
+}
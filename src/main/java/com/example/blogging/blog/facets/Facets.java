@@ -0,0 +1,14 @@
+package com.example.blogging.blog.facets;
+
+import java.util.Map;
+
+/**
+ * Represents the number of blog posts per category and per tag.
+ *
+ * @param categories the number of posts per category
+ * @param tags       the number of posts per normalized tag name
+ */
+public record Facets(
+        Map<String, Long> categories,
+        Map<String, Long> tags
+) {}
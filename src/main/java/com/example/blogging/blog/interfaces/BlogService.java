@@ -1,12 +1,23 @@
 package com.example.blogging.blog.interfaces;
 
-import com.example.blogging.blog.entities.Blog;
+import com.example.blogging.blog.bulkhead.BulkheadStatistics;
+import com.example.blogging.blog.cache.CacheStatistics;
+import com.example.blogging.blog.cache.ResponseBytesCache;
+import com.example.blogging.blog.coalescing.CoalescingStatistics;
+import com.example.blogging.blog.facets.Facets;
+import com.example.blogging.blog.requests.BlogPatch;
 import com.example.blogging.blog.requests.BlogPost;
+import com.example.blogging.blog.requests.BulkDelete;
+import com.example.blogging.blog.responses.BlogView;
 import com.example.blogging.blog.responses.CreatedBlogPostData;
+import com.example.blogging.blog.responses.PostChange;
+import com.example.blogging.blog.responses.PostVersion;
 import com.example.blogging.blog.responses.Response;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface BlogService {
@@ -21,6 +32,16 @@ public interface BlogService {
      */
     ResponseEntity<Response<CreatedBlogPostData>> createNewBlogPost(BlogPost request);
 
+    /**
+     * Creates many new blog posts in one transaction, inserting them in JDBC batches.
+     * All requests are validated first; if any of them has empty fields, no post is created
+     * and the index and empty fields of every invalid request are reported.
+     *
+     * @param requests The details of the new blog posts.
+     * @return A {@link ResponseEntity} containing the created blog posts, in the order of the requests.
+     */
+    ResponseEntity<Response<List<CreatedBlogPostData>>> createNewBlogPosts(List<BlogPost> requests);
+
     /**
      * This method updates an existing blog post based on the provided request data.
      *
@@ -29,6 +50,18 @@ public interface BlogService {
      */
     ResponseEntity<Response<CreatedBlogPostData>> updateBlogPost(int id, BlogPost request);
 
+    /**
+     * This method changes only the given fields of an existing blog post.
+     * The update touches only the changed columns and is guarded by the version of the post,
+     * so concurrent editors cannot silently overwrite each other.
+     *
+     * @param id the ID of the blog post to be changed
+     * @param request the fields to change, null fields are left unchanged
+     * @param ifMatch the If-Match header with the strong entity tag of the Post-Version header the client last read, or null to skip the check
+     * @return a ResponseEntity containing a Response object with the data of the changed blog post
+     */
+    ResponseEntity<Response<CreatedBlogPostData>> patchBlogPost(int id, BlogPatch request, String ifMatch);
+
     /**
      * This method deletes a blog post identified by the given ID.
      *
@@ -37,6 +70,15 @@ public interface BlogService {
      */
     ResponseEntity<HttpStatus> deleteBlogPost(int id);
 
+    /**
+     * This method deletes many blog posts, either by their ids or by a category/creation time filter.
+     * The posts are deleted in chunks with set-based statements and are never loaded.
+     *
+     * @param request the ids or the filter of the blog posts to be deleted
+     * @return a ResponseEntity containing a Response object with the number of deleted blog posts
+     */
+    ResponseEntity<Response<Integer>> deleteBlogPosts(BulkDelete request);
+
     /**
      * This method retrieves a single blog post by its ID.
      *
@@ -46,10 +88,97 @@ public interface BlogService {
     ResponseEntity<Response<CreatedBlogPostData>> getSingleBlogPostById(int id);
 
     /**
-     * This method retrieves a list of blog posts that match the specified search term.
+     * This method retrieves a blog post by its ID as encoded JSON bytes, from the {@link ResponseBytesCache} if possible.
+     * Used instead of {@link #getSingleBlogPostById(int)} when the response bytes cache is enabled.
+     *
+     * @param id the ID of the blog post to retrieve
+     * @param gzip whether the client accepts a gzip-compressed body
+     * @return a ResponseEntity containing the encoded response
+     */
+    ResponseEntity<byte[]> getEncodedBlogPostById(int id, boolean gzip);
+
+    /**
+     * This method retrieves the version of a blog post without loading the post itself,
+     * so that conditional requests can be answered from the cache or a version-only query.
+     *
+     * @param id the ID of the blog post
+     * @return the {@link PostVersion} of the blog post
+     */
+    PostVersion getBlogVersion(int id);
+
+    /**
+     * This method reports the hit, miss and eviction counts of the blog post cache.
+     *
+     * @return a ResponseEntity containing a Response object with the statistics of the cache
+     */
+    ResponseEntity<Response<CacheStatistics>> getCacheStatistics();
+
+    /**
+     * This method reports the permits, queue times and rejections of the repository bulkhead.
+     *
+     * @return a ResponseEntity containing a Response object with the statistics of the read and search compartments
+     */
+    ResponseEntity<Response<List<BulkheadStatistics>>> getBulkheadStatistics();
+
+    /**
+     * This method reports how many reads of a post and searches joined an identical call in flight
+     * instead of querying the database themselves.
+     *
+     * @return a ResponseEntity containing a Response object with the statistics of the post and search coalescing
+     */
+    ResponseEntity<Response<List<CoalescingStatistics>>> getCoalescingStatistics();
+
+    /**
+     * This method reports the number of blog posts per category and per tag.
+     * The counts are kept in memory and adjusted by every write, so they are returned without querying the posts.
+     *
+     * @return a ResponseEntity containing a Response object with the facet counts
+     */
+    ResponseEntity<Response<Facets>> getFacets();
+
+    /**
+     * This method retrieves the most read blog posts of the recent past, most read first.
+     * The ranking is kept in memory; only the returned posts are read, from the cache where possible.
+     *
+     * @param limit the maximum number of blog posts to return
+     * @return a ResponseEntity containing a Response object with the trending blog posts
+     */
+    ResponseEntity<Response<List<CreatedBlogPostData>>> getTrendingPosts(int limit);
+
+    /**
+     * This method retrieves one page of blog posts that match the specified search term.
+     * Without a term all posts are listed newest first, otherwise the posts come in the order of the {@link SearchEngine}.
+     *
+     * @param term the search term used to filter the blog posts, or null/empty to list all posts
+     * @param cursor the opaque cursor returned with the previous page, or null/empty for the first page
+     * @param limit the maximum number of posts on the page
+     * @param fields the comma-separated fields to return, "all", or null/empty for every field except the content
+     * @param tags the tags the posts must have, or null/empty for any posts
+     * @param match "all" if a post must have all the tags, "any" if any of them is enough; null means "all"
+     * @return a ResponseEntity containing a Response object with the posts of the page and the cursor of the next page
+     */
+    ResponseEntity<Response<List<BlogView>>> getBlogPosts(String term, String cursor, int limit, String fields, List<String> tags, String match);
+
+    /**
+     * This method retrieves the blog posts created, updated or deleted after a position of the change feed,
+     * oldest change first, so that clients can sync without listing all posts again.
+     * A post that changed several times appears once, with its last change.
+     *
+     * @param cursor the cursor returned with the previous page, or null/empty to read from the first change
+     * @param limit the maximum number of changes on the page
+     * @return a ResponseEntity containing a Response object with the changes and the cursor to continue from
+     */
+    ResponseEntity<Response<List<PostChange>>> getChanges(String cursor, int limit);
+
+    /**
+     * This method writes all blog posts that match the specified search term to the given output stream
+     * as newline-delimited JSON. All posts are streamed newest first from a database cursor, the posts
+     * matching a term as the {@link SearchEngine} streams them. Posts are released after they are
+     * written, so memory use does not grow with the number of posts.
      *
-     * @param term the search term used to filter the blog posts
-     * @return a ResponseEntity containing a Response object with a list of data for the filtered blog posts
+     * @param term the search term used to filter the blog posts, or null/empty to stream all posts
+     * @param outputStream the stream the posts are written to
+     * @throws IOException if writing to the output stream fails
      */
-    ResponseEntity<Response<List<Blog>>> getBlogPosts(String term);
+    void streamBlogPosts(String term, OutputStream outputStream) throws IOException;
 }
@@ -0,0 +1,43 @@
+package com.example.blogging.blog.interfaces;
+
+import com.example.blogging.blog.entities.Blog;
+import com.example.blogging.blog.search.SearchResult;
+
+import java.util.stream.Stream;
+
+public interface SearchEngine {
+
+    /**
+     * Searches the blog posts for the given term and returns the ids of one page of matches.
+     * The order of the ids is the order in which the posts must be returned to the client.
+     *
+     * @param term the search term used to filter the blog posts
+     * @param cursor the opaque cursor returned with the previous page, or null/empty for the first page
+     * @param limit the maximum number of ids on the page
+     * @return a {@link SearchResult} with the ids of the matching posts and the cursor of the next page
+     */
+    SearchResult search(String term, String cursor, int limit);
+
+    /**
+     * Streams all blog posts matching the given term, in the order in which they must be returned.
+     * Must be called in a transaction and closed after use, like the streams of the {@link com.example.blogging.blog.repositories.BlogRepository}.
+     *
+     * @param term the search term used to filter the blog posts
+     * @return the matching blog posts
+     */
+    Stream<Blog> stream(String term);
+
+    /**
+     * Adds a blog post to the search engine, or replaces it if it was indexed before.
+     *
+     * @param blog the created or updated blog post
+     */
+    void index(Blog blog);
+
+    /**
+     * Removes a blog post from the search engine.
+     *
+     * @param id the ID of the deleted blog post
+     */
+    void remove(int id);
+}
@@ -0,0 +1,67 @@
+package com.example.blogging.blog.metrics;
+
+import com.example.blogging.blog.services.BlogServiceImpl;
+import com.example.blogging.exception.Causes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Records the application metrics that Spring Boot does not record by itself.
+ * Endpoint latencies ({@code http.server.requests}) and repository method timers
+ * ({@code spring.data.repository.invocations}) come from the actuator auto-configuration.
+ * All meters are registered once up front, so recording is a plain counter update.
+ */
+@Component
+public class BlogMetrics {
+
+    private final DistributionSummary listRows;
+    private final DistributionSummary searchRows;
+    private final Map<Causes, Counter> exceptions = new EnumMap<>(Causes.class);
+
+    public BlogMetrics(MeterRegistry registry) {
+        this.listRows = pageRows(registry, "list");
+        this.searchRows = pageRows(registry, "search");
+
+        for (Causes cause : Causes.values()) {
+            exceptions.put(cause, Counter.builder("blog.exceptions")
+                    .description("Requests that failed with a BlogPostException")
+                    .tag("cause", cause.name())
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Records the number of posts on a listing or search page.
+     *
+     * @param search true for a search page, false for a listing page
+     * @param rows the number of posts on the page
+     */
+    public void recordPage(boolean search, int rows) {
+        (search ? searchRows : listRows).record(rows);
+    }
+
+    /**
+     * Counts a request that failed with the given cause.
+     *
+     * @param cause the cause of the failure
+     */
+    public void recordException(Causes cause) {
+        exceptions.get(cause).increment();
+    }
+
+    private static DistributionSummary pageRows(MeterRegistry registry, String query) {
+        return DistributionSummary.builder("blog.posts.page.rows")
+                .description("Posts per listing or search page")
+                .baseUnit("rows")
+                .tag("query", query)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue((double) BlogServiceImpl.MAX_PAGE_SIZE)
+                .register(registry);
+    }
+}
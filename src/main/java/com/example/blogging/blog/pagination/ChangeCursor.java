@@ -0,0 +1,57 @@
+package com.example.blogging.blog.pagination;
+
+import com.example.blogging.exception.BlogPostException;
+import com.example.blogging.exception.Causes;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Represents a position in the change feed: the changes up to changeSeq have been read.
+ * Like {@link Cursor}, it is handed to clients as an opaque, url-safe token.
+ * The changes after the position were made after caughtUpAt, less the settle time of the feed,
+ * so once the tombstones of that time may have been purged, the cursor has expired.
+ *
+ * @param changeSeq  the change sequence number of the last change read, 0 before the first change
+ * @param caughtUpAt the last time the client read up to the newest change, or started reading
+ */
+public record ChangeCursor(
+        long changeSeq,
+        LocalDateTime caughtUpAt
+) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes this cursor into the opaque token returned to clients.
+     *
+     * @return the url-safe token of this cursor
+     */
+    public String encode() {
+        String raw = changeSeq + SEPARATOR + caughtUpAt;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param token the opaque token sent by the client
+     * @return the decoded cursor
+     * @throws BlogPostException if the token is not a valid cursor
+     */
+    public static ChangeCursor decode(String token) throws BlogPostException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+
+            return new ChangeCursor(
+                    Long.parseLong(raw.substring(0, separator)),
+                    LocalDateTime.parse(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BlogPostException(Causes.INVALID_CURSOR, "The submitted cursor is malformed or has expired");
+        }
+    }
+}
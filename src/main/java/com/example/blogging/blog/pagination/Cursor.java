@@ -0,0 +1,66 @@
+package com.example.blogging.blog.pagination;
+
+import com.example.blogging.blog.entities.Blog;
+import com.example.blogging.exception.BlogPostException;
+import com.example.blogging.exception.Causes;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Represents the position of the last blog post of a page in the (createdAt, id) ordering.
+ * The cursor is handed to clients as an opaque, url-safe token and sent back to fetch the next page.
+ *
+ * @param createdAt the creation time of the last post on the page
+ * @param id        the id of the last post on the page, used to break ties on createdAt
+ */
+public record Cursor(
+        LocalDateTime createdAt,
+        int id
+) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Creates a cursor pointing at the given blog post.
+     *
+     * @param blog the last blog post of a page
+     * @return a cursor positioned right after the given post
+     */
+    public static Cursor of(Blog blog) {
+        return new Cursor(blog.getCreatedAt(), blog.getId());
+    }
+
+    /**
+     * Encodes this cursor into the opaque token returned to clients.
+     *
+     * @return the url-safe token of this cursor
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param token the opaque token sent by the client
+     * @return the decoded cursor
+     * @throws BlogPostException if the token is not a valid cursor
+     */
+    public static Cursor decode(String token) throws BlogPostException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+
+            return new Cursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.parseInt(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BlogPostException(Causes.INVALID_CURSOR, "The submitted cursor is malformed or has expired");
+        }
+    }
+}
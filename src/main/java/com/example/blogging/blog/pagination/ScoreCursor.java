@@ -0,0 +1,83 @@
+package com.example.blogging.blog.pagination;
+
+import com.example.blogging.exception.BlogPostException;
+import com.example.blogging.exception.Causes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * Represents the position of the last blog post of a ranked search page in the (score desc, id asc) ordering.
+ * Like {@link Cursor}, it is handed to clients as an opaque, url-safe token.
+ *
+ * @param score the relevance score of the last post on the page
+ * @param id    the id of the last post on the page, used to break ties on the score
+ */
+public record ScoreCursor(
+        double score,
+        int id
+) {
+
+    private static final String SEPARATOR = "|";
+
+    // the raw bits of the score in hex, then the id; keyset cursors start with a date instead
+    private static final Pattern FORMAT = Pattern.compile("[0-9a-f]{1,16}\\|\\d+");
+
+    /**
+     * Checks whether a hit with the given score and id is ranked after this cursor.
+     *
+     * @param score the relevance score of the hit
+     * @param id the id of the hit
+     * @return true if the hit belongs to a later page than this cursor
+     */
+    public boolean precedes(double score, int id) {
+        return score < this.score || (score == this.score && id > this.id);
+    }
+
+    /**
+     * Encodes this cursor into the opaque token returned to clients.
+     * The score is encoded by its raw bits so that it survives the round trip exactly.
+     *
+     * @return the url-safe token of this cursor
+     */
+    public String encode() {
+        String raw = Long.toHexString(Double.doubleToLongBits(score)) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Checks whether a token was produced by {@link #encode()}, as opposed to a keyset {@link Cursor}.
+     *
+     * @param token the opaque token sent by the client
+     * @return true if the token is a ranked search cursor
+     */
+    public static boolean isScoreCursor(String token) {
+        try {
+            return FORMAT.matcher(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)).matches();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param token the opaque token sent by the client
+     * @return the decoded cursor
+     * @throws BlogPostException if the token is not a valid cursor
+     */
+    public static ScoreCursor decode(String token) throws BlogPostException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+
+            return new ScoreCursor(
+                    Double.longBitsToDouble(Long.parseUnsignedLong(raw.substring(0, separator), 16)),
+                    Integer.parseInt(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BlogPostException(Causes.INVALID_CURSOR, "The submitted cursor is malformed or has expired");
+        }
+    }
+}
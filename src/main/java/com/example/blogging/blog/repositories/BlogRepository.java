@@ -1,18 +1,88 @@
 package com.example.blogging.blog.repositories;
 
+import com.example.blogging.blog.bulkhead.ExpensiveQuery;
 import com.example.blogging.blog.entities.Blog;
+import com.example.blogging.blog.facets.FacetCount;
+import com.example.blogging.blog.pagination.Cursor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface BlogRepository extends JpaRepository<Blog, Integer> {
+public interface BlogRepository extends JpaRepository<Blog, Integer>, BlogRepositoryCustom {
 
-    @Query("SELECT p FROM Blog p WHERE LOWER(p.category) LIKE LOWER(CONCAT('%', :term, '%')) " +
+    String MATCHES_TERM = "(LOWER(p.category) LIKE LOWER(CONCAT('%', :term, '%')) " +
             "OR LOWER(p.content) LIKE LOWER(CONCAT('%', :term, '%')) " +
-            "OR LOWER(p.tittle) LIKE LOWER(CONCAT('%', :term, '%'))")
-    List<Blog> findBlogs(@Param("term") String term);
-}
\ No newline at end of file
+            "OR LOWER(p.tittle) LIKE LOWER(CONCAT('%', :term, '%')))";
+
+    String NEWEST_FIRST = " ORDER BY p.createdAt DESC, p.id DESC";
+
+    String BEFORE_CURSOR = "(p.createdAt, p.id) < (:createdAt, :id)";
+
+    // number of rows the JDBC driver fetches per round trip when streaming
+    int STREAM_FETCH_SIZE = 256;
+
+    @Modifying
+    @Query("DELETE FROM Blog p WHERE p.id IN :ids")
+    int deleteBlogsByIds(@Param("ids") Collection<Integer> ids);
+
+    // moves an updated post to the end of the change feed; view counts are not changes and never call this
+    @Modifying
+    @Query(value = "UPDATE blog SET change_seq = nextval('change_seq') WHERE id = :id", nativeQuery = true)
+    int touchChangeSeq(@Param("id") int id);
+
+    @Query("SELECT p FROM Blog p WHERE p.changeSeq > :changeSeq ORDER BY p.changeSeq")
+    List<Blog> findChangedAfter(@Param("changeSeq") long changeSeq, Pageable pageable);
+
+    @Query("SELECT p.updatedAt FROM Blog p WHERE p.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") int id);
+
+    @ExpensiveQuery
+    @Query("SELECT new com.example.blogging.blog.facets.FacetCount(p.category, COUNT(p)) FROM Blog p GROUP BY p.category")
+    List<FacetCount> countCategories();
+
+    @Query("SELECT new com.example.blogging.blog.facets.FacetCount(p.category, COUNT(p)) FROM Blog p WHERE p.id IN :ids GROUP BY p.category")
+    List<FacetCount> countCategoriesByIds(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT p FROM Blog p" + NEWEST_FIRST)
+    List<Blog> findFirstPage(Pageable pageable);
+
+    @Query("SELECT p FROM Blog p WHERE " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<Blog> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") int id, Pageable pageable);
+
+    @ExpensiveQuery
+    @Query("SELECT new com.example.blogging.blog.pagination.Cursor(p.createdAt, p.id) FROM Blog p WHERE " + MATCHES_TERM + NEWEST_FIRST)
+    List<Cursor> findBlogKeysFirstPage(@Param("term") String term, Pageable pageable);
+
+    @ExpensiveQuery
+    @Query("SELECT new com.example.blogging.blog.pagination.Cursor(p.createdAt, p.id) FROM Blog p WHERE " + MATCHES_TERM + " AND " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<Cursor> findBlogKeysPageAfter(@Param("term") String term, @Param("createdAt") LocalDateTime createdAt, @Param("id") int id, Pageable pageable);
+
+    @ExpensiveQuery
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Blog p" + NEWEST_FIRST)
+    Stream<Blog> streamAll();
+
+    @ExpensiveQuery
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Blog p WHERE " + MATCHES_TERM + NEWEST_FIRST)
+    Stream<Blog> streamBlogs(@Param("term") String term);
+}
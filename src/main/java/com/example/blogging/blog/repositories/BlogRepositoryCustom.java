@@ -0,0 +1,61 @@
+package com.example.blogging.blog.repositories;
+
+import com.example.blogging.blog.bulkhead.ExpensiveQuery;
+import com.example.blogging.blog.entities.BlogField;
+import com.example.blogging.blog.pagination.Cursor;
+import com.example.blogging.blog.tags.TagFilter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Declares the {@link BlogRepository} queries whose JPQL depends on which filters or fields are given,
+ * or whose SQL depends on the database.
+ */
+public interface BlogRepositoryCustom {
+
+    /**
+     * Finds the ids of the blog posts that match the given filters, in ascending id order.
+     * Filters that are null are not applied.
+     *
+     * @param category the category of the posts, or null for any category
+     * @param before the time the posts must have been created before, or null for any time
+     * @param afterId only ids greater than this one are returned, so that chunks can be fetched by keyset
+     * @param limit the maximum number of ids to return
+     * @return the ids of the matching blog posts
+     */
+    @ExpensiveQuery
+    List<Integer> findIdsMatching(String category, LocalDateTime before, int afterId, int limit);
+
+    /**
+     * Finds one page of blog posts in (createdAt, id) descending order, reading only the selected columns.
+     *
+     * @param fields the fields to read, columns of other fields are not selected
+     * @param tags the tags the posts must have, or null for any posts
+     * @param after the position of the last post of the previous page, or null for the first page
+     * @param limit the maximum number of posts to return
+     * @return the rows of the page
+     */
+    List<BlogRow> findRows(Set<BlogField> fields, TagFilter tags, Cursor after, int limit);
+
+    /**
+     * Finds the blog posts with the given ids, reading only the selected columns.
+     * The rows come in no particular order.
+     *
+     * @param fields the fields to read, columns of other fields are not selected
+     * @param tags the tags the posts must have, or null for any posts
+     * @param ids the ids of the blog posts
+     * @return the rows of the blog posts that exist and have the tags
+     */
+    List<BlogRow> findRowsByIds(Set<BlogField> fields, TagFilter tags, Collection<Integer> ids);
+
+    /**
+     * Deletes the blog post with the given id in a single statement that returns the deleted row.
+     *
+     * @param id the ID of the blog post
+     * @return the category of the deleted post, or an empty list if no post has the id
+     */
+    List<String> deleteBlogReturningCategory(int id);
+}
@@ -0,0 +1,157 @@
+package com.example.blogging.blog.repositories;
+
+import com.example.blogging.blog.entities.BlogField;
+import com.example.blogging.blog.entities.Tags;
+import com.example.blogging.blog.pagination.Cursor;
+import com.example.blogging.blog.responses.BlogView;
+import com.example.blogging.blog.tags.TagFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class BlogRepositoryCustomImpl implements BlogRepositoryCustom {
+
+    // columns every row needs for paging and entity tags, whatever fields are selected
+    private static final String KEY_COLUMNS = "p.id AS id, p.createdAt AS createdAt, p.updatedAt AS updatedAt";
+
+    private final EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> deleteBlogReturningCategory(int id) {
+        // PostgreSQL returns the deleted row from the DELETE itself, H2 from a delta table over the DELETE
+        boolean h2 = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof H2Dialect;
+        String sql = h2
+                ? "SELECT category FROM OLD TABLE (DELETE FROM blog WHERE id = :id)"
+                : "DELETE FROM blog WHERE id = :id RETURNING category";
+
+        return entityManager.createNativeQuery(sql, String.class).setParameter("id", id).getResultList();
+    }
+
+    @Override
+    public List<Integer> findIdsMatching(String category, LocalDateTime before, int afterId, int limit) {
+        // only add the filters that are given, so that every query can use a plain index condition
+        StringBuilder jpql = new StringBuilder("SELECT p.id FROM Blog p WHERE p.id > :afterId");
+        if (category != null) jpql.append(" AND p.category = :category");
+        if (before != null) jpql.append(" AND p.createdAt < :before");
+        jpql.append(" ORDER BY p.id");
+
+        TypedQuery<Integer> query = entityManager.createQuery(jpql.toString(), Integer.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit);
+        if (category != null) query.setParameter("category", category);
+        if (before != null) query.setParameter("before", before);
+
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BlogRow> findRows(Set<BlogField> fields, TagFilter tags, Cursor after, int limit) {
+        List<String> conditions = new ArrayList<>();
+        if (tags != null) conditions.add(hasTags(tags));
+        if (after != null) conditions.add(BlogRepository.BEFORE_CURSOR);
+        String jpql = select(fields)
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + BlogRepository.NEWEST_FIRST;
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql, Tuple.class).setMaxResults(limit);
+        if (tags != null) setTagParameters(query, tags);
+        if (after != null) {
+            query.setParameter("createdAt", after.createdAt());
+            query.setParameter("id", after.id());
+        }
+
+        return query.getResultList().stream().map(tuple -> row(fields, tuple)).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BlogRow> findRowsByIds(Set<BlogField> fields, TagFilter tags, Collection<Integer> ids) {
+        if (ids.isEmpty()) return List.of();
+
+        String jpql = select(fields) + " WHERE p.id IN :ids" + (tags == null ? "" : " AND " + hasTags(tags));
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql, Tuple.class).setParameter("ids", ids);
+        if (tags != null) setTagParameters(query, tags);
+
+        return query.getResultList().stream().map(tuple -> row(fields, tuple)).toList();
+    }
+
+    /**
+     * Builds the condition that a post has the tags of the filter. It is answered from the
+     * (tag_id, post_id) index of the join table: a post with all the tags appears once per tag.
+     *
+     * @param tags the tag filter
+     * @return the JPQL condition
+     */
+    private String hasTags(TagFilter tags) {
+        return "p.id IN (SELECT pt.id.postId FROM PostTag pt WHERE pt.id.tagId IN :tagIds"
+                + (tags.all() ? " GROUP BY pt.id.postId HAVING COUNT(pt.id.tagId) = :tagCount)" : ")");
+    }
+
+    private void setTagParameters(TypedQuery<Tuple> query, TagFilter tags) {
+        query.setParameter("tagIds", tags.tagIds());
+        if (tags.all()) query.setParameter("tagCount", (long) tags.tagIds().size());
+    }
+
+    /**
+     * Builds the SELECT clause that reads the key columns and the columns of the selected fields only.
+     *
+     * @param fields the selected fields
+     * @return the SELECT and FROM clauses of the query
+     */
+    private String select(Set<BlogField> fields) {
+        StringBuilder jpql = new StringBuilder("SELECT ").append(KEY_COLUMNS);
+        for (BlogField field : fields) {
+            switch (field) {
+                case ID, CREATED_AT, UPDATED_AT -> { /* always selected as key columns */ }
+                default -> jpql.append(", ").append(field.path).append(" AS ").append(field.label);
+            }
+        }
+
+        return jpql.append(" FROM Blog p").toString();
+    }
+
+    /**
+     * Maps a result tuple to a row, setting only the selected fields on its view.
+     *
+     * @param fields the selected fields
+     * @param tuple the result tuple
+     * @return the row of the tuple
+     */
+    private BlogRow row(Set<BlogField> fields, Tuple tuple) {
+        int id = tuple.get("id", Integer.class);
+        LocalDateTime createdAt = tuple.get("createdAt", LocalDateTime.class);
+        LocalDateTime updatedAt = tuple.get("updatedAt", LocalDateTime.class);
+
+        BlogView.BlogViewBuilder view = BlogView.builder().id(id);
+        for (BlogField field : fields) {
+            switch (field) {
+                case ID -> { /* always set */ }
+                case TITLE -> view.title(tuple.get(field.label, String.class));
+                case CONTENT -> view.content(tuple.get(field.label, String.class));
+                case CATEGORY -> view.category(tuple.get(field.label, String.class));
+                case TAGS -> {
+                    Tags tags = tuple.get(field.label, Tags.class);
+                    view.tags(tags == null ? null : tags.tags());
+                }
+                case CREATED_AT -> view.createdAt(createdAt);
+                case UPDATED_AT -> view.updatedAt(updatedAt);
+            }
+        }
+
+        return new BlogRow(id, createdAt, updatedAt, view.build());
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.blogging.blog.repositories;
+
+import com.example.blogging.blog.pagination.Cursor;
+import com.example.blogging.blog.responses.BlogView;
+import com.example.blogging.blog.responses.PostVersion;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a projected listing query: the selected fields of a blog post, plus the columns
+ * that are always read because paging and entity tags depend on them.
+ *
+ * @param id        the ID of the blog post
+ * @param createdAt the creation time of the blog post, for the next-page cursor
+ * @param updatedAt the time of the last update of the blog post, for the entity tag
+ * @param view      the selected fields of the blog post
+ */
+public record BlogRow(
+        int id,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        BlogView view
+) {
+
+    public Cursor cursor() {
+        return new Cursor(createdAt, id);
+    }
+
+    public PostVersion version() {
+        return new PostVersion(id, updatedAt);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.blogging.blog.repositories;
+
+import com.example.blogging.blog.entities.PostTag;
+import com.example.blogging.blog.entities.PostTagId;
+import com.example.blogging.blog.facets.FacetCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PostTagRepository extends JpaRepository<PostTag, PostTagId> {
+
+    @Modifying
+    @Query("DELETE FROM PostTag pt WHERE pt.id.postId = :postId AND pt.id.tagId IN :tagIds")
+    int deletePostTags(@Param("postId") int postId, @Param("tagIds") Collection<Integer> tagIds);
+
+    @Modifying
+    @Query("DELETE FROM PostTag pt WHERE pt.id.postId IN :postIds")
+    int deleteByPostIds(@Param("postIds") Collection<Integer> postIds);
+
+    @Query("SELECT new com.example.blogging.blog.facets.FacetCount(t.name, COUNT(pt)) FROM PostTag pt JOIN Tag t ON t.id = pt.id.tagId GROUP BY t.name")
+    List<FacetCount> countTags();
+
+    @Query("SELECT new com.example.blogging.blog.facets.FacetCount(t.name, COUNT(pt)) FROM PostTag pt JOIN Tag t ON t.id = pt.id.tagId WHERE pt.id.postId IN :postIds GROUP BY t.name")
+    List<FacetCount> countTagsByPostIds(@Param("postIds") Collection<Integer> postIds);
+}
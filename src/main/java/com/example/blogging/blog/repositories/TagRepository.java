@@ -0,0 +1,22 @@
+package com.example.blogging.blog.repositories;
+
+import com.example.blogging.blog.entities.Tag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Integer> {
+
+    List<Tag> findByNameIn(Collection<String> names);
+
+    // concurrent writers may add the same new tag, the unique name decides and the loser inserts nothing
+    @Modifying
+    @Query(value = "INSERT INTO tag (name) VALUES (:name) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
+}
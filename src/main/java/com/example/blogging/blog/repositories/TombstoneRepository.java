@@ -0,0 +1,33 @@
+package com.example.blogging.blog.repositories;
+
+import com.example.blogging.blog.entities.Tombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    // only posts that still exist get a tombstone, so ids that are not in the system leave no trace
+    @Modifying
+    @Query(value = "INSERT INTO blog_tombstone (post_id, deleted_at) SELECT id, :deletedAt FROM blog WHERE id IN :ids", nativeQuery = true)
+    int insertTombstones(@Param("ids") Collection<Integer> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // for a post that was just deleted, whose row can no longer be copied
+    @Modifying
+    @Query(value = "INSERT INTO blog_tombstone (post_id, deleted_at) VALUES (:postId, :deletedAt)", nativeQuery = true)
+    void insertTombstone(@Param("postId") int postId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Query("SELECT t FROM Tombstone t WHERE t.changeSeq > :changeSeq ORDER BY t.changeSeq")
+    List<Tombstone> findTombstonesAfter(@Param("changeSeq") long changeSeq, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Tombstone t WHERE t.deletedAt < :before")
+    int deleteTombstonesBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,21 @@
+package com.example.blogging.blog.requests;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.util.List;
+
+/**
+ * Represents a request to change some fields of an existing blog post.
+ * Fields that are null are left unchanged; fields that are given must not be empty.
+ *
+ * @param title    The new title of the blog post.
+ * @param content  The new content or body of the blog post.
+ * @param category The new category of the blog post.
+ * @param tags     The new list of tags of the blog post.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record BlogPatch(
+        String title,
+        String content,
+        String category,
+        List<String> tags
+) {}
@@ -0,0 +1,21 @@
+package com.example.blogging.blog.requests;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Represents a request to delete many blog posts at once.
+ * Either the ids of the posts are given, or a filter made of a category
+ * and/or a creation time the posts must be older than.
+ *
+ * @param ids      The ids of the blog posts to delete.
+ * @param category The category of the blog posts to delete.
+ * @param before   The time the blog posts to delete must have been created before.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record BulkDelete(
+        Set<Integer> ids,
+        String category,
+        LocalDateTime before
+) {}
@@ -0,0 +1,26 @@
+package com.example.blogging.blog.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The details of a blog post in a listing or search page.
+ * Only the fields selected with the fields= parameter are set; the others are left out of the JSON.
+ */
+@Builder
+@ToString
+@EqualsAndHashCode
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BlogView {
+    private Integer id;
+    private String title;
+    private String content;
+    private String category;
+    private List<String> tags;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
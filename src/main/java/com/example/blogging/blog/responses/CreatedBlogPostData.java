@@ -17,4 +17,5 @@ public class CreatedBlogPostData {
     private List<String> tags;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private long views;
 }
@@ -0,0 +1,22 @@
+package com.example.blogging.blog.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the change feed. A created or updated post carries its current state,
+ * a deleted post only its id; clients upsert the former and remove the latter.
+ */
+@Builder
+@ToString
+@EqualsAndHashCode
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PostChange {
+    private int id;
+    private boolean deleted;
+    private LocalDateTime changedAt;
+    private CreatedBlogPostData post;
+}
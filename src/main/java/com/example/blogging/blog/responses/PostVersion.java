@@ -0,0 +1,134 @@
+package com.example.blogging.blog.responses;
+
+import com.example.blogging.blog.entities.Blog;
+import com.example.blogging.blog.entities.BlogField;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Identifies the version of a blog post for HTTP conditional requests.
+ * Every write sets a new updatedAt, so (id, updatedAt) changes whenever the content of the post does.
+ * The view count of a post changes without a new version, so bodies that differ only in their views
+ * share a version, and the ETag header of a single post is a weak one, for If-None-Match.
+ * If-Match only accepts strong tags, so the strong tag of the version is sent in the
+ * {@value #VERSION_HEADER} header for clients to send back with their writes.
+ *
+ * @param id        the ID of the blog post
+ * @param updatedAt the time of the last update of the blog post
+ */
+public record PostVersion(
+        int id,
+        LocalDateTime updatedAt
+) {
+
+    /**
+     * The response header that carries the quoted strong entity tag of a single post.
+     */
+    public static final String VERSION_HEADER = "Post-Version";
+
+    // 64-bit FNV-1a parameters
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Returns the version of the given blog post.
+     *
+     * @param blog the blog post
+     * @return the version of the blog post
+     */
+    public static PostVersion of(Blog blog) {
+        return new PostVersion(blog.getId(), blog.getUpdatedAt());
+    }
+
+    /**
+     * Returns the strong entity tag of this version, without the surrounding quotes.
+     * The time is taken at microsecond precision, which is what the database keeps,
+     * so that a freshly saved post and the same post read back get the same tag.
+     *
+     * @return the entity tag of this version
+     */
+    public String eTag() {
+        return id + "-" + Long.toHexString(epochMicros());
+    }
+
+    /**
+     * Returns the weak entity tag of this version, as sent in the ETag header of a single post.
+     * It is weak because the view count in the body changes without a new version.
+     *
+     * @return the quoted weak entity tag of this version
+     */
+    public String weakETag() {
+        return "W/\"" + eTag() + "\"";
+    }
+
+    /**
+     * Returns the strong entity tag of this version, as sent in the {@value #VERSION_HEADER} header.
+     *
+     * @return the quoted strong entity tag of this version
+     */
+    public String strongETag() {
+        return "\"" + eTag() + "\"";
+    }
+
+    /**
+     * Checks whether an If-Match header matches this version.
+     * If-Match uses the strong comparison, so the weak tag of the ETag header never matches.
+     *
+     * @param ifMatch the value of the If-Match header, a list of quoted entity tags or "*"
+     * @return true if the header is "*" or contains the strong entity tag of this version
+     */
+    public boolean matches(String ifMatch) {
+        String strongETag = strongETag();
+
+        for (String candidate : ifMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(strongETag)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the strong entity tag of a page of blog posts, without the surrounding quotes.
+     * The tag changes whenever a post of the page is added, removed, reordered or updated,
+     * when the page gains or loses its next page, or when other fields are selected.
+     *
+     * @param versions the versions of the blog posts of the page, in order
+     * @param fields the fields selected for the posts of the page
+     * @param nextCursor the cursor of the next page, or null if this is the last page
+     * @return the entity tag of the page
+     */
+    public static String eTag(List<PostVersion> versions, Set<BlogField> fields, String nextCursor) {
+        long selected = 0;
+        for (BlogField field : fields) {
+            selected |= 1L << field.ordinal();
+        }
+
+        long hash = (FNV_OFFSET_BASIS ^ selected) * FNV_PRIME;
+        for (PostVersion version : versions) {
+            hash = (hash ^ version.id()) * FNV_PRIME;
+            hash = (hash ^ version.epochMicros()) * FNV_PRIME;
+        }
+        hash = (hash ^ (nextCursor == null ? 0 : nextCursor.hashCode())) * FNV_PRIME;
+
+        return "page-" + Long.toHexString(hash);
+    }
+
+    private long epochMicros() {
+        return updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+    }
+
+    /**
+     * Returns the time of the last update in milliseconds since the epoch, for the Last-Modified header.
+     * Timestamps are written with {@link LocalDateTime#now()}, so they are in the system time zone.
+     *
+     * @return the last modification time in epoch milliseconds
+     */
+    public long lastModified() {
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
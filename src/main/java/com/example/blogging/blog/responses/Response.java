@@ -1,5 +1,6 @@
 package com.example.blogging.blog.responses;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 import java.time.LocalDateTime;
@@ -12,4 +13,7 @@ public class Response<T> {
     private int status;
     private String message;
     private T data;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 }
@@ -0,0 +1,271 @@
+package com.example.blogging.blog.search;
+
+import com.example.blogging.blog.entities.Blog;
+import com.example.blogging.blog.interfaces.SearchEngine;
+import com.example.blogging.blog.pagination.Cursor;
+import com.example.blogging.blog.pagination.ScoreCursor;
+import com.example.blogging.blog.repositories.BlogRepository;
+import com.example.blogging.exception.BlogPostException;
+import com.example.blogging.exception.Causes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Searches the blog posts with an in-memory inverted index over their title, content and category,
+ * ranking the matches with BM25. Only the posting lists of the search terms are read,
+ * so a search costs in proportion to the number of matches instead of the size of the table.
+ * The index is rebuilt from the {@link BlogRepository} at startup and kept up to date by the
+ * {@link com.example.blogging.blog.services.BlogServiceImpl}; until the rebuild completes,
+ * searches go to the {@link LikeQuerySearchEngine}, or are refused as busy when content compression
+ * is enabled, because the LIKE query cannot match compressed content. Cursors the fallback issued
+ * keep paging through the fallback after the rebuild.
+ * Set {@code blog.search.engine=like} to use the LIKE query only.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "blog.search.engine", havingValue = "index", matchIfMissing = true)
+public class InvertedIndexSearchEngine implements SearchEngine {
+
+    // standard BM25 parameters: term frequency saturation and document length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private static final Comparator<Hit> BEST_FIRST = Comparator
+            .comparingDouble(Hit::score).reversed()
+            .thenComparingInt(Hit::id);
+
+    private final BlogRepository blogRepository;
+    private final LikeQuerySearchEngine fallback;
+    private final boolean compressedContent;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Integer, IndexedDocument> documents = new HashMap<>();
+    private long totalLength;
+
+    private volatile boolean ready;
+
+    public InvertedIndexSearchEngine(
+            BlogRepository blogRepository,
+            LikeQuerySearchEngine fallback,
+            @Value("${blog.content.compression.enabled:false}") boolean compressedContent
+    ) {
+        this.blogRepository = blogRepository;
+        this.fallback = fallback;
+        this.compressedContent = compressedContent;
+    }
+
+    @Override
+    public SearchResult search(String term, String cursor, int limit) {
+        if (!ready) {
+            if (compressedContent) throw new BlogPostException(Causes.SERVICE_BUSY, "The search index is still being built, retry shortly");
+            return fallback.search(term, cursor, limit);
+        }
+
+        ScoreCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            // a keyset cursor of the fallback, issued before the index was ready: finish that paging
+            // in the order it started, switching to the ranking would skip and repeat posts;
+            // the fallback rejects tokens that are not its cursors either
+            if (!ScoreCursor.isScoreCursor(cursor)) return fallback.search(term, cursor, limit);
+            after = ScoreCursor.decode(cursor);
+        }
+        Map<Integer, double[]> scores = score(new LinkedHashSet<>(Tokenizer.tokenize(term)));
+
+        // keep the best hits after the cursor in a bounded heap whose head is the worst hit,
+        // plus one extra hit to find out whether another page follows
+        PriorityQueue<Hit> heap = new PriorityQueue<>(limit + 2, BEST_FIRST.reversed());
+        for (Map.Entry<Integer, double[]> entry : scores.entrySet()) {
+            double score = entry.getValue()[0];
+            int id = entry.getKey();
+            if (after != null && !after.precedes(score, id)) continue;
+
+            heap.offer(new Hit(id, score));
+            if (heap.size() > limit + 1) heap.poll();
+        }
+
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(BEST_FIRST);
+
+        String nextCursor = null;
+        if (hits.size() > limit) {
+            hits = hits.subList(0, limit);
+            Hit last = hits.get(limit - 1);
+            nextCursor = new ScoreCursor(last.score(), last.id()).encode();
+        }
+
+        return new SearchResult(hits.stream().map(Hit::id).toList(), nextCursor);
+    }
+
+    /**
+     * Ranks all matches once and loads them from the {@link BlogRepository} in chunks of
+     * {@link BlogRepository#STREAM_FETCH_SIZE} ids, so that only one chunk of posts is held at a time.
+     */
+    @Override
+    public Stream<Blog> stream(String term) {
+        if (!ready) {
+            if (compressedContent) throw new BlogPostException(Causes.SERVICE_BUSY, "The search index is still being built, retry shortly");
+            return fallback.stream(term);
+        }
+
+        List<Integer> ids = score(new LinkedHashSet<>(Tokenizer.tokenize(term))).entrySet().stream()
+                .map(entry -> new Hit(entry.getKey(), entry.getValue()[0]))
+                .sorted(BEST_FIRST)
+                .map(Hit::id)
+                .toList();
+
+        int chunks = (ids.size() + BlogRepository.STREAM_FETCH_SIZE - 1) / BlogRepository.STREAM_FETCH_SIZE;
+        return IntStream.range(0, chunks)
+                .mapToObj(chunk -> ids.subList(chunk * BlogRepository.STREAM_FETCH_SIZE, Math.min(ids.size(), (chunk + 1) * BlogRepository.STREAM_FETCH_SIZE)))
+                .flatMap(this::findInOrder);
+    }
+
+    @Override
+    public void index(Blog blog) {
+        // tokenize outside the lock, only the index update needs to be exclusive
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String field : new String[]{blog.getTittle(), blog.getContent(), blog.getCategory()}) {
+            for (String term : Tokenizer.tokenize(field)) {
+                frequencies.merge(term, 1, Integer::sum);
+                length++;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            // the rebuild may read a post before a concurrent update and index it after the update was indexed
+            IndexedDocument indexed = documents.get(blog.getId());
+            if (indexed != null && indexed.version() > blog.getVersion()) return;
+
+            removeDocument(blog.getId());
+
+            frequencies.forEach((term, frequency) -> postings
+                    .computeIfAbsent(term, key -> new PostingList())
+                    .put(blog.getId(), frequency));
+            documents.put(blog.getId(), new IndexedDocument(frequencies.keySet().toArray(String[]::new), length, blog.getVersion()));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the index from the repository once the application has started.
+     * Posts are read in keyset pages so that the whole table is never held in memory.
+     * Posts written while the rebuild runs are indexed by the service as usual, and the older copy
+     * the rebuild may have read of such a post never replaces the newer version; a post deleted
+     * in the meantime may stay in the index, which is harmless because hits are hydrated from the repository.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        int indexed = 0;
+
+        List<Blog> page = blogRepository.findFirstPage(PageRequest.ofSize(REBUILD_BATCH_SIZE));
+        while (!page.isEmpty()) {
+            page.forEach(this::index);
+            indexed += page.size();
+
+            Cursor last = Cursor.of(page.get(page.size() - 1));
+            page = blogRepository.findPageAfter(last.createdAt(), last.id(), PageRequest.ofSize(REBUILD_BATCH_SIZE));
+        }
+
+        ready = true;
+        log.info("Indexed {} blog posts for search in {} ms", indexed, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Loads the blog posts with the given ids, keeping the order of the ids.
+     * Ids of posts that were deleted since they were ranked are skipped.
+     *
+     * @param ids the ids of the blog posts, in the order they must be returned
+     * @return the blog posts in the order of the ids
+     */
+    private Stream<Blog> findInOrder(List<Integer> ids) {
+        Map<Integer, Blog> blogsById = new HashMap<>();
+        blogRepository.findAllById(ids).forEach(blog -> blogsById.put(blog.getId(), blog));
+
+        return ids.stream().map(blogsById::get).filter(Objects::nonNull);
+    }
+
+    /**
+     * Computes the BM25 score of every post that contains at least one of the given terms.
+     *
+     * @param terms the distinct terms of the search
+     * @return the score of every matching post, keyed by post id
+     */
+    private Map<Integer, double[]> score(Set<String> terms) {
+        Map<Integer, double[]> scores = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int count = documents.size();
+            double averageLength = count == 0 ? 0 : (double) totalLength / count;
+
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) continue;
+
+                double idf = Math.log(1 + (count - list.size() + 0.5) / (list.size() + 0.5));
+                for (int i = 0; i < list.size(); i++) {
+                    int document = list.document(i);
+                    int frequency = list.frequency(i);
+                    double norm = K1 * (1 - B + B * documents.get(document).length() / averageLength);
+
+                    scores.computeIfAbsent(document, key -> new double[1])[0] += idf * frequency * (K1 + 1) / (frequency + norm);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return scores;
+    }
+
+    /**
+     * Removes a post from the posting lists of all its terms. Must be called while holding the write lock.
+     *
+     * @param id the ID of the post to remove
+     */
+    private void removeDocument(int id) {
+        IndexedDocument document = documents.remove(id);
+        if (document == null) return;
+
+        for (String term : document.terms()) {
+            PostingList list = postings.get(term);
+            list.remove(id);
+            if (list.isEmpty()) postings.remove(term);
+        }
+        totalLength -= document.length();
+    }
+
+    private record IndexedDocument(String[] terms, int length, long version) {}
+
+    private record Hit(int id, double score) {}
+}
@@ -0,0 +1,59 @@
+package com.example.blogging.blog.search;
+
+import com.example.blogging.blog.entities.Blog;
+import com.example.blogging.blog.interfaces.SearchEngine;
+import com.example.blogging.blog.pagination.Cursor;
+import com.example.blogging.blog.repositories.BlogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Searches the blog posts with the LIKE '%term%' query of the {@link BlogRepository}, newest first.
+ * Every search scans the whole table, so this engine is kept as the fallback of the
+ * {@link InvertedIndexSearchEngine} and to compare its results.
+ */
+@Component
+@RequiredArgsConstructor
+public class LikeQuerySearchEngine implements SearchEngine {
+
+    private final BlogRepository blogRepository;
+
+    @Override
+    public SearchResult search(String term, String cursor, int limit) {
+        Cursor after = (cursor == null || cursor.isBlank()) ? null : Cursor.decode(cursor);
+
+        // fetch one extra key to find out whether another page follows
+        Pageable pageable = PageRequest.ofSize(limit + 1);
+        List<Cursor> keys = after == null
+                ? blogRepository.findBlogKeysFirstPage(term, pageable)
+                : blogRepository.findBlogKeysPageAfter(term, after.createdAt(), after.id(), pageable);
+
+        String nextCursor = null;
+        if (keys.size() > limit) {
+            keys = keys.subList(0, limit);
+            nextCursor = keys.get(limit - 1).encode();
+        }
+
+        return new SearchResult(keys.stream().map(Cursor::id).toList(), nextCursor);
+    }
+
+    @Override
+    public Stream<Blog> stream(String term) {
+        return blogRepository.streamBlogs(term);
+    }
+
+    @Override
+    public void index(Blog blog) {
+        // the LIKE query always reads the table, there is nothing to index
+    }
+
+    @Override
+    public void remove(int id) {
+        // the LIKE query always reads the table, there is nothing to remove
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.blogging.blog.search;
+
+import java.util.Arrays;
+
+/**
+ * Holds the blog posts that contain one term, as a sorted array of post ids with a parallel array
+ * of term frequencies. Primitive arrays keep a posting at 8 bytes instead of two boxed objects and a map entry.
+ * New posts get increasing ids, so inserts almost always append at the end.
+ * This class is not thread-safe, the {@link InvertedIndexSearchEngine} guards it with its lock.
+ */
+final class PostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] documents = new int[INITIAL_CAPACITY];
+    private int[] frequencies = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Adds a post to this list, or replaces its term frequency if it is already present.
+     *
+     * @param document the id of the post
+     * @param frequency the number of times the term occurs in the post
+     */
+    void put(int document, int frequency) {
+        // fast path: posts are mostly indexed in id order
+        int index = (size == 0 || documents[size - 1] < document)
+                ? -(size + 1)
+                : Arrays.binarySearch(documents, 0, size, document);
+
+        if (index >= 0) {
+            frequencies[index] = frequency;
+            return;
+        }
+
+        int insertAt = -(index + 1);
+        if (size == documents.length) {
+            documents = Arrays.copyOf(documents, size * 2);
+            frequencies = Arrays.copyOf(frequencies, size * 2);
+        }
+
+        System.arraycopy(documents, insertAt, documents, insertAt + 1, size - insertAt);
+        System.arraycopy(frequencies, insertAt, frequencies, insertAt + 1, size - insertAt);
+        documents[insertAt] = document;
+        frequencies[insertAt] = frequency;
+        size++;
+    }
+
+    /**
+     * Removes a post from this list if it is present.
+     *
+     * @param document the id of the post
+     */
+    void remove(int document) {
+        int index = Arrays.binarySearch(documents, 0, size, document);
+        if (index < 0) return;
+
+        System.arraycopy(documents, index + 1, documents, index, size - index - 1);
+        System.arraycopy(frequencies, index + 1, frequencies, index, size - index - 1);
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int document(int index) {
+        return documents[index];
+    }
+
+    int frequency(int index) {
+        return frequencies[index];
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.blogging.blog.search;
+
+import java.util.List;
+
+/**
+ * Represents one page of search hits.
+ *
+ * @param ids        the ids of the matching blog posts, in the order they must be returned
+ * @param nextCursor the opaque cursor of the next page, or null if this is the last page
+ */
+public record SearchResult(
+        List<Integer> ids,
+        String nextCursor
+) {}
@@ -0,0 +1,39 @@
+package com.example.blogging.blog.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lower-cased terms made of letters and digits.
+ * The same tokenizer is applied to indexed posts and to search terms so that both sides agree on the terms.
+ */
+final class Tokenizer {
+
+    private Tokenizer() {}
+
+    /**
+     * Tokenizes the given text.
+     *
+     * @param text the text to tokenize, may be null
+     * @return the terms of the text, in order and with duplicates
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) return terms;
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean partOfTerm = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+
+            if (partOfTerm && start < 0) {
+                start = i;
+            } else if (!partOfTerm && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+
+        return terms;
+    }
+}
@@ -1,100 +1,577 @@
 package com.example.blogging.blog.services;
 
+import com.example.blogging.blog.bulkhead.BulkheadStatistics;
+import com.example.blogging.blog.bulkhead.RepositoryBulkhead;
+import com.example.blogging.blog.cache.BlogCache;
+import com.example.blogging.blog.cache.CacheStatistics;
+import com.example.blogging.blog.cache.EncodedPost;
+import com.example.blogging.blog.cache.ResponseBytesCache;
+import com.example.blogging.blog.changes.Change;
+import com.example.blogging.blog.changes.ChangeFeed;
+import com.example.blogging.blog.changes.ChangePage;
+import com.example.blogging.blog.coalescing.CoalescingStatistics;
+import com.example.blogging.blog.coalescing.SingleFlight;
 import com.example.blogging.blog.entities.Blog;
+import com.example.blogging.blog.entities.BlogField;
 import com.example.blogging.blog.entities.Tags;
+import com.example.blogging.blog.facets.FacetCounter;
+import com.example.blogging.blog.facets.Facets;
 import com.example.blogging.blog.interfaces.BlogService;
+import com.example.blogging.blog.interfaces.SearchEngine;
+import com.example.blogging.blog.metrics.BlogMetrics;
+import com.example.blogging.blog.pagination.ChangeCursor;
+import com.example.blogging.blog.pagination.Cursor;
 import com.example.blogging.blog.repositories.BlogRepository;
+import com.example.blogging.blog.repositories.BlogRow;
+import com.example.blogging.blog.requests.BlogPatch;
 import com.example.blogging.blog.requests.BlogPost;
+import com.example.blogging.blog.requests.BulkDelete;
+import com.example.blogging.blog.responses.BlogView;
 import com.example.blogging.blog.responses.CreatedBlogPostData;
+import com.example.blogging.blog.responses.PostChange;
+import com.example.blogging.blog.responses.PostVersion;
 import com.example.blogging.blog.responses.Response;
+import com.example.blogging.blog.search.SearchResult;
+import com.example.blogging.blog.tags.TagFilter;
+import com.example.blogging.blog.tags.TagStore;
+import com.example.blogging.blog.trending.TrendingPosts;
+import com.example.blogging.blog.views.ViewCounter;
 import com.example.blogging.exception.BlogPostException;
 import com.example.blogging.exception.Causes;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BlogServiceImpl implements BlogService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    // must match spring.jpa.properties.hibernate.jdbc.batch_size
+    private static final int INSERT_BATCH_SIZE = 50;
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
     private final BlogRepository blogRepository;
+    private final SearchEngine searchEngine;
+    private final BlogCache blogCache;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionOperations transactionOperations;
+    private final TagStore tagStore;
+    private final FacetCounter facetCounter;
+    private final RepositoryBulkhead repositoryBulkhead;
+    private final BlogMetrics blogMetrics;
+    private final ViewCounter viewCounter;
+    private final TrendingPosts trendingPosts;
+    private final ResponseBytesCache responseBytesCache;
+    private final ChangeFeed changeFeed;
+
+    // concurrent reads of the same post or search page share one query
+    private final SingleFlight<Integer, Blog> postLoads = new SingleFlight<>("post");
+    private final SingleFlight<SearchKey, SearchResult> searches = new SingleFlight<>("search");
 
     @Override
+    @Transactional
     public ResponseEntity<Response<CreatedBlogPostData>> createNewBlogPost(BlogPost request) {
         // verify that the input fields are not empty
         List<String> inputFields = validateInputFields(request);
-        if (!inputFields.isEmpty()) throw new BlogPostException(Causes.NO_EMPTY_FIELDS_ALLOWED, new Throwable(Causes.THE_FOLLOWING_FIELDS_ARE_EMPTY.label + inputFields));
+        if (!inputFields.isEmpty()) throw new BlogPostException(Causes.NO_EMPTY_FIELDS_ALLOWED, Causes.THE_FOLLOWING_FIELDS_ARE_EMPTY.label + inputFields);
 
         // create the new blog post
-        Blog blog = new Blog();
-        blog.setCreatedAt(LocalDateTime.now());
-        blog.setUpdatedAt(LocalDateTime.now());
-        blog.setTittle(request.title());
-        blog.setContent(request.content());
-        blog.setCategory(request.category());
-        blog.setTags(new Tags(request.tags()));
+        Blog blog = newBlog(request, LocalDateTime.now());
 
         // save the created blog
         Blog createdBlog = blogRepository.save(blog);
+        tagStore.attach(List.of(createdBlog));
+        afterCommit(() -> {
+            searchEngine.index(createdBlog);
+            facetCounter.add(createdBlog.getCategory(), createdBlog.getTags());
+        });
 
         return ResponseEntity.status(HttpStatus.CREATED).body(postResponse(HttpStatus.CREATED, createdBlog));
     }
 
     @Override
+    @Transactional
+    public ResponseEntity<Response<List<CreatedBlogPostData>>> createNewBlogPosts(List<BlogPost> requests) {
+        if (requests.size() > MAX_BATCH_SIZE) throw new BlogPostException(Causes.BATCH_TOO_LARGE, "A batch can contain at most " + MAX_BATCH_SIZE + " posts");
+
+        // verify that the input fields of every post are not empty, and report all invalid posts at once
+        Map<Integer, List<String>> invalidItems = new TreeMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            List<String> inputFields = validateInputFields(requests.get(i));
+            if (!inputFields.isEmpty()) invalidItems.put(i, inputFields);
+        }
+        if (!invalidItems.isEmpty()) throw new BlogPostException(Causes.NO_EMPTY_FIELDS_ALLOWED, Causes.THE_FOLLOWING_ITEMS_HAVE_EMPTY_FIELDS.label + invalidItems);
+
+        // insert the posts in JDBC batches, clearing the persistence context after every batch
+        LocalDateTime now = LocalDateTime.now();
+        List<Blog> createdBlogs = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += INSERT_BATCH_SIZE) {
+            List<Blog> batch = requests.subList(from, Math.min(from + INSERT_BATCH_SIZE, requests.size()))
+                    .stream()
+                    .map(request -> newBlog(request, now))
+                    .toList();
+
+            List<Blog> savedBatch = blogRepository.saveAll(batch);
+            tagStore.attach(savedBatch);
+            createdBlogs.addAll(savedBatch);
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        // only index the posts once they are visible to other transactions
+        afterCommit(() -> createdBlogs.forEach(blog -> {
+            searchEngine.index(blog);
+            facetCounter.add(blog.getCategory(), blog.getTags());
+        }));
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                Response.<List<CreatedBlogPostData>>builder()
+                        .status(HttpStatus.CREATED.value())
+                        .message("success")
+                        .data(createdBlogs.stream().map(this::postData).toList())
+                .build()
+        );
+    }
+
+    @Override
+    @Transactional
     public ResponseEntity<Response<CreatedBlogPostData>> updateBlogPost(int id,  BlogPost request) {
 
         // validate the request fields
         List<String> inputFields = validateInputFields(request);
-        if (!inputFields.isEmpty()) throw new BlogPostException(Causes.NO_EMPTY_FIELDS_ALLOWED, new Throwable(Causes.THE_FOLLOWING_FIELDS_ARE_EMPTY.label + inputFields));
+        if (!inputFields.isEmpty()) throw new BlogPostException(Causes.NO_EMPTY_FIELDS_ALLOWED, Causes.THE_FOLLOWING_FIELDS_ARE_EMPTY.label + inputFields);
 
         // update the blog
         Blog updatedBlog = updateBlog(id, request);
+        afterCommit(() -> searchEngine.index(updatedBlog));
 
         return ResponseEntity.status(HttpStatus.OK).body(postResponse(HttpStatus.OK, updatedBlog));
     }
 
     @Override
+    @Transactional
+    public ResponseEntity<Response<CreatedBlogPostData>> patchBlogPost(int id, BlogPatch request, String ifMatch) {
+        // fields that are left out stay unchanged, but the given ones must not be empty
+        List<String> emptyFields = new ArrayList<>();
+        if (request.title() != null && request.title().isEmpty()) emptyFields.add("title");
+        if (request.category() != null && request.category().isEmpty()) emptyFields.add("category");
+        if (request.content() != null && request.content().isEmpty()) emptyFields.add("content");
+        if (!emptyFields.isEmpty()) throw new BlogPostException(Causes.NO_EMPTY_FIELDS_ALLOWED, Causes.THE_FOLLOWING_FIELDS_ARE_EMPTY.label + emptyFields);
+
+        // never modify the shared cached instance
+        Blog blog = loadBlogById(id);
+        if (ifMatch != null && !PostVersion.of(blog).matches(ifMatch)) throw new BlogPostException(Causes.PRECONDITION_FAILED, "The post was modified since it was read, fetch it again and retry");
+
+        // remember the facets of the post before any field is changed
+        String oldCategory = blog.getCategory();
+        Tags oldTags = blog.getTags();
+
+        // only the changed columns are dirty, so the dynamic update leaves the others (and the content) untouched
+        if (request.title() != null) blog.setTittle(request.title());
+        if (request.content() != null) blog.setContent(request.content());
+        if (request.category() != null) blog.setCategory(request.category());
+        if (request.tags() != null) blog.setTags(TagStore.normalized(request.tags()));
+        blog.setUpdatedAt(LocalDateTime.now());
+
+        Blog patchedBlog = saveChecked(blog, Causes.PRECONDITION_FAILED);
+        blogRepository.touchChangeSeq(id);
+        if (request.tags() != null) tagStore.update(id, oldTags, patchedBlog.getTags());
+        afterCommit(() -> {
+            blogCache.invalidate(id);
+            searchEngine.index(patchedBlog);
+            facetCounter.remove(oldCategory, oldTags);
+            facetCounter.add(patchedBlog.getCategory(), patchedBlog.getTags());
+        });
+
+        PostVersion version = PostVersion.of(patchedBlog);
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(version.weakETag())
+                .header(PostVersion.VERSION_HEADER, version.strongETag())
+                .lastModified(version.lastModified())
+                .body(postResponse(HttpStatus.OK, patchedBlog));
+    }
+
+    @Override
+    @Transactional
     public ResponseEntity<HttpStatus> deleteBlogPost(int id) {
-        Blog blog = getBlogById(id);
+        // delete the blog with a single statement that returns the deleted row; ids that do not exist stop here
+        List<String> categories = blogRepository.deleteBlogReturningCategory(id);
+        if (categories.isEmpty()) throw new BlogPostException(Causes.BLOG_ID_DOES_NOT_EXIST, "The submitted id is not in the system");
+
+        // the bookkeeping only runs for a post that existed
+        Facets deleted = facetCounter.countDeletedPost(categories.getFirst(), id);
+        tagStore.detach(List.of(id));
+        changeFeed.recordDelete(id);
 
-        // delete the blog
-        blogRepository.delete(blog);
+        afterCommit(() -> {
+            forget(List.of(id));
+            facetCounter.subtract(deleted);
+        });
 
         return ResponseEntity.status(HttpStatus.NO_CONTENT.value()).body(HttpStatus.NO_CONTENT);
     }
 
+    @Override
+    public ResponseEntity<Response<Integer>> deleteBlogPosts(BulkDelete request) {
+        boolean byIds = request.ids() != null && !request.ids().isEmpty();
+        boolean byFilter = request.category() != null || request.before() != null;
+        if (byIds == byFilter) throw new BlogPostException(Causes.INVALID_DELETE_REQUEST, "Submit either the ids or the category/before filter of the posts to delete");
+
+        // delete in chunks, each in its own transaction, so that no statement or lock grows with the number of posts
+        int deleted = 0;
+        if (byIds) {
+            List<Integer> ids = new ArrayList<>(request.ids());
+            for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + DELETE_CHUNK_SIZE, ids.size()));
+                deleted += Objects.requireNonNull(transactionOperations.execute(status -> {
+                    uncountOnCommit(chunk);
+                    tagStore.detach(chunk);
+                    changeFeed.recordDeletes(chunk);
+                    return blogRepository.deleteBlogsByIds(chunk);
+                }));
+                forget(chunk);
+            }
+        } else {
+            int afterId = 0;
+            List<Integer> chunk;
+            do {
+                int lastId = afterId;
+                chunk = Objects.requireNonNull(transactionOperations.execute(status -> {
+                    List<Integer> ids = blogRepository.findIdsMatching(request.category(), request.before(), lastId, DELETE_CHUNK_SIZE);
+                    if (!ids.isEmpty()) {
+                        uncountOnCommit(ids);
+                        tagStore.detach(ids);
+                        changeFeed.recordDeletes(ids);
+                        blogRepository.deleteBlogsByIds(ids);
+                    }
+                    return ids;
+                }));
+
+                deleted += chunk.size();
+                forget(chunk);
+                if (!chunk.isEmpty()) afterId = chunk.get(chunk.size() - 1);
+            } while (chunk.size() == DELETE_CHUNK_SIZE);
+        }
+
+        return ResponseEntity.status(HttpStatus.OK).body(
+                Response.<Integer>builder()
+                        .status(HttpStatus.OK.value())
+                        .message("success")
+                        .data(deleted)
+                .build()
+        );
+    }
+
     @Override
     public ResponseEntity<Response<CreatedBlogPostData>> getSingleBlogPostById(int id) {
         Blog blog = getBlogById(id);
+        viewCounter.increment(id);
+        trendingPosts.record(id);
+        PostVersion version = PostVersion.of(blog);
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(version.weakETag())
+                .header(PostVersion.VERSION_HEADER, version.strongETag())
+                .lastModified(version.lastModified())
+                .body(postResponse(HttpStatus.OK, blog));
+    }
+
+    @Override
+    public ResponseEntity<byte[]> getEncodedBlogPostById(int id, boolean gzip) {
+        Blog blog = getBlogById(id);
+        viewCounter.increment(id);
+        trendingPosts.record(id);
+        PostVersion version = PostVersion.of(blog);
+
+        // the view count is the only part of the response that changes without a new version
+        EncodedPost encoded = responseBytesCache.get(version, () -> postResponse(HttpStatus.OK, blog));
+        long views = blog.getViews() + viewCounter.unflushed(id);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK)
+                .eTag(version.weakETag())
+                .header(PostVersion.VERSION_HEADER, version.strongETag())
+                .lastModified(version.lastModified())
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(encoded.gzip(views));
 
-        return ResponseEntity.status(HttpStatus.OK).body(postResponse(HttpStatus.OK, blog));
+        return response.body(encoded.identity(views));
+    }
+
+    @Override
+    public PostVersion getBlogVersion(int id) {
+        Blog cached = blogCache.getIfPresent(id);
+        if (cached != null) return PostVersion.of(cached);
+
+        LocalDateTime updatedAt = blogRepository.findUpdatedAtById(id)
+                .orElseThrow(() -> new BlogPostException(Causes.BLOG_ID_DOES_NOT_EXIST, "The submitted id is not in the system"));
+
+        return new PostVersion(id, updatedAt);
+    }
+
+    @Override
+    public ResponseEntity<Response<CacheStatistics>> getCacheStatistics() {
+        return ResponseEntity.status(HttpStatus.OK).body(
+                Response.<CacheStatistics>builder()
+                        .status(HttpStatus.OK.value())
+                        .message("success")
+                        .data(blogCache.statistics())
+                .build()
+        );
+    }
+
+    @Override
+    public ResponseEntity<Response<List<BulkheadStatistics>>> getBulkheadStatistics() {
+        return ResponseEntity.status(HttpStatus.OK).body(
+                Response.<List<BulkheadStatistics>>builder()
+                        .status(HttpStatus.OK.value())
+                        .message("success")
+                        .data(repositoryBulkhead.statistics())
+                .build()
+        );
+    }
+
+    @Override
+    public ResponseEntity<Response<List<CoalescingStatistics>>> getCoalescingStatistics() {
+        return ResponseEntity.status(HttpStatus.OK).body(
+                Response.<List<CoalescingStatistics>>builder()
+                        .status(HttpStatus.OK.value())
+                        .message("success")
+                        .data(List.of(postLoads.statistics(), searches.statistics()))
+                .build()
+        );
+    }
+
+    @Override
+    public ResponseEntity<Response<Facets>> getFacets() {
+        return ResponseEntity.status(HttpStatus.OK).body(
+                Response.<Facets>builder()
+                        .status(HttpStatus.OK.value())
+                        .message("success")
+                        .data(facetCounter.facets())
+                .build()
+        );
+    }
+
+    @Override
+    public ResponseEntity<Response<List<CreatedBlogPostData>>> getTrendingPosts(int limit) {
+        List<Integer> ids = trendingPosts.top(Math.clamp(limit, 1, TrendingPosts.MAX_TRENDING));
+
+        return ResponseEntity.status(HttpStatus.OK).body(
+                Response.<List<CreatedBlogPostData>>builder()
+                        .status(HttpStatus.OK.value())
+                        .message("success")
+                        .data(getBlogsInOrder(ids).stream().map(this::postData).toList())
+                .build()
+        );
     }
 
     @Override
-    public ResponseEntity<Response<List<Blog>>> getBlogPosts(String term) {
-        List<Blog> blogs;
-        if (term.isEmpty()) {
-            blogs = blogRepository.findAll();
+    public ResponseEntity<Response<List<BlogView>>> getBlogPosts(String term, String cursor, int limit, String fields, List<String> tags, String match) {
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        Set<BlogField> selected = BlogField.parse(fields);
+        TagFilter tagFilter = tagStore.filter(tags, match);
+
+        List<BlogRow> rows;
+        String nextCursor = null;
+        if (tagFilter != null && tagFilter.matchesNothing()) {
+            rows = List.of();
+        } else if (term == null || term.isBlank()) {
+            Cursor after = (cursor == null || cursor.isBlank()) ? null : Cursor.decode(cursor);
+
+            // fetch one extra row to find out whether another page follows
+            rows = blogRepository.findRows(selected, tagFilter, after, pageSize + 1);
+
+            if (rows.size() > pageSize) {
+                rows = rows.subList(0, pageSize);
+                nextCursor = rows.get(pageSize - 1).cursor().encode();
+            }
         } else {
-            blogs = blogRepository.findBlogs(term);
+            // posts without the tags are dropped from the page, so a filtered search page may be short
+            SearchResult result = searches.execute(new SearchKey(term, cursor, pageSize), () -> searchEngine.search(term, cursor, pageSize));
+            rows = findRowsInOrder(selected, tagFilter, result.ids());
+            nextCursor = result.nextCursor();
         }
 
+        blogMetrics.recordPage(term != null && !term.isBlank(), rows.size());
 
+        String eTag = PostVersion.eTag(rows.stream().map(BlogRow::version).toList(), selected, nextCursor);
+        return ResponseEntity.status(HttpStatus.OK).eTag(eTag).body(
+                Response.<List<BlogView>>builder()
+                        .status(HttpStatus.OK.value())
+                        .message("success")
+                        .data(rows.stream().map(BlogRow::view).toList())
+                        .nextCursor(nextCursor)
+                .build()
+        );
+    }
+
+    @Override
+    public ResponseEntity<Response<List<PostChange>>> getChanges(String cursor, int limit) {
+        ChangeCursor after = (cursor == null || cursor.isBlank()) ? changeFeed.start() : ChangeCursor.decode(cursor);
+        ChangePage page = changeFeed.changesAfter(after, Math.clamp(limit, 1, ChangeFeed.MAX_CHANGES));
+
+        // the feed never ends, the cursor is returned even when there were no changes
         return ResponseEntity.status(HttpStatus.OK).body(
-                Response.<List<Blog>>builder()
+                Response.<List<PostChange>>builder()
                         .status(HttpStatus.OK.value())
                         .message("success")
-                        .data(blogs)
+                        .data(page.changes().stream().map(this::postChange).toList())
+                        .nextCursor(page.next().encode())
                 .build()
         );
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamBlogPosts(String term, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+
+        try (Stream<Blog> blogs = (term == null || term.isBlank()) ? blogRepository.streamAll() : searchEngine.stream(term);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            int written = 0;
+            for (Iterator<Blog> iterator = blogs.iterator(); iterator.hasNext(); ) {
+                Blog blog = iterator.next();
+                writer.writeValue(generator, blog);
+
+                // drop the written post from the persistence context so that it can be garbage collected
+                entityManager.detach(blog);
+                if (++written % BlogRepository.STREAM_FETCH_SIZE == 0) generator.flush();
+            }
+
+            if (written > 0) generator.writeRaw('\n');
+        }
+    }
+
     // helper methods:
+    /**
+     * Loads the selected fields of the blog posts with the given ids, keeping the order of the ids.
+     * Ids of posts that were deleted in the meantime are skipped.
+     *
+     * @param fields the fields to read
+     * @param tags the tags the posts must have, or null for any posts
+     * @param ids the ids of the blog posts, in the order they must be returned
+     * @return the rows of the blog posts in the order of the ids
+     */
+    private List<BlogRow> findRowsInOrder(Set<BlogField> fields, TagFilter tags, List<Integer> ids) {
+        if (ids.isEmpty()) return List.of();
+
+        Map<Integer, BlogRow> rowsById = new HashMap<>();
+        blogRepository.findRowsByIds(fields, tags, ids).forEach(row -> rowsById.put(row.id(), row));
+
+        return ids.stream()
+                .map(rowsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Creates a new, not yet saved Blog entity from the provided request.
+     *
+     * @param request the details of the new blog post
+     * @param now the creation time of the blog post
+     * @return the new Blog entity
+     */
+    private Blog newBlog(BlogPost request, LocalDateTime now) {
+        Blog blog = new Blog();
+        blog.setCreatedAt(now);
+        blog.setUpdatedAt(now);
+        blog.setTittle(request.title());
+        blog.setContent(request.content());
+        blog.setCategory(request.category());
+        blog.setTags(TagStore.normalized(request.tags()));
+
+        return blog;
+    }
+
+    /**
+     * Saves a modified blog post and flushes it, so that a concurrent modification is detected right away.
+     * The update is guarded by the version of the post: if another request saved the post since it was
+     * loaded, nothing is written and a BlogPostException with the given cause is thrown.
+     *
+     * @param blog the modified blog post
+     * @param cause the cause reported when the post was modified concurrently
+     * @return the saved blog post
+     * @throws BlogPostException if the post was modified concurrently
+     */
+    private Blog saveChecked(Blog blog, Causes cause) throws BlogPostException {
+        try {
+            return blogRepository.saveAndFlush(blog);
+        } catch (OptimisticLockingFailureException e) {
+            throw new BlogPostException(cause, "The post was modified by another request, fetch it again and retry");
+        }
+    }
+
+    /**
+     * Removes deleted blog posts from the cache, the search index and the view counts.
+     *
+     * @param ids the ids of the deleted blog posts
+     */
+    private void forget(List<Integer> ids) {
+        for (int id : ids) {
+            blogCache.invalidate(id);
+            searchEngine.remove(id);
+        }
+        viewCounter.discard(ids);
+        trendingPosts.discard(ids);
+    }
+
+    /**
+     * Counts the categories and tags of blog posts that are about to be deleted,
+     * and removes them from the facet counts once the delete is committed.
+     *
+     * @param ids the ids of the blog posts to delete
+     */
+    private void uncountOnCommit(List<Integer> ids) {
+        Facets deleted = facetCounter.countPosts(ids);
+        afterCommit(() -> facetCounter.subtract(deleted));
+    }
+
+    /**
+     * Runs the given action after the current transaction commits, or right away if there is no transaction.
+     * In-memory structures such as the search index must not see writes that may still be rolled back.
+     *
+     * @param action the action to run
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     /**
      * Validates the input fields of the provided blog post request.
      * Checks for any empty mandatory fields such as title, category, and content.
@@ -102,7 +579,7 @@ public class BlogServiceImpl implements BlogService {
      * @param postRequest The request object containing the details of the blog post to be validated.
      * @return A list of field names that are empty. If all fields are filled, the list will be empty.
      */
-    private <T extends BlogPost> List<String>  validateInputFields(T postRequest) {
+    <T extends BlogPost> List<String>  validateInputFields(T postRequest) {
         List<String> emptyFields = new ArrayList<>();
 
         if (postRequest.title().isEmpty()) emptyFields.add("title");
@@ -122,17 +599,30 @@ public class BlogServiceImpl implements BlogService {
      * @return the updated Blog entity after it has been saved to the repository
      */
     private Blog updateBlog(int id, BlogPost request) {
-        // confirm the blog exists
-        Blog blog = getBlogById(id);
+        // confirm the blog exists, never modify the shared cached instance
+        Blog blog = loadBlogById(id);
+        String oldCategory = blog.getCategory();
+        Tags oldTags = blog.getTags();
 
         blog.setUpdatedAt(LocalDateTime.now());
         blog.setTittle(request.title());
         blog.setContent(request.content());
         blog.setCategory(request.category());
-        blog.setTags(new Tags(request.tags()));
+        blog.setTags(TagStore.normalized(request.tags()));
 
         // save the created blog
-       return blogRepository.save(blog);
+        Blog updatedBlog = saveChecked(blog, Causes.CONCURRENT_MODIFICATION);
+        blogRepository.touchChangeSeq(id);
+        tagStore.update(id, oldTags, updatedBlog.getTags());
+        // invalidated once the new version is committed; the generation check in the cache keeps a read that
+        // loaded the old version before the commit from caching it afterwards
+        afterCommit(() -> {
+            blogCache.invalidate(id);
+            facetCounter.remove(oldCategory, oldTags);
+            facetCounter.add(updatedBlog.getCategory(), updatedBlog.getTags());
+        });
+
+        return updatedBlog;
     }
 
     /**
@@ -149,31 +639,121 @@ public class BlogServiceImpl implements BlogService {
         return Response.<CreatedBlogPostData>builder()
                 .status(status.value())
                 .message("success")
-                .data(CreatedBlogPostData
-                        .builder()
-                        .id(blog.getId())
-                        .createdAt(blog.getCreatedAt())
-                        .updatedAt(blog.getUpdatedAt())
-                        .title(blog.getTittle())
-                        .content(blog.getContent())
-                        .category(blog.getCategory())
-                        .tags(blog.getTags().tags())
-                        .build())
+                .data(postData(blog))
                 .build();
     }
 
     /**
-     * This method retrieves a Blog entity by its ID.
-     * If the blog with the given ID does not exist, it throws a BlogPostException with the appropriate cause.
+     * Extracts the details of a blog post that are returned to the client.
+     *
+     * @param blog The blog entity from which the details are extracted.
+     * @return The {@link CreatedBlogPostData} of the blog post.
+     */
+    private CreatedBlogPostData postData(Blog blog) {
+        return CreatedBlogPostData
+                .builder()
+                .id(blog.getId())
+                .createdAt(blog.getCreatedAt())
+                .updatedAt(blog.getUpdatedAt())
+                .title(blog.getTittle())
+                .content(blog.getContent())
+                .category(blog.getCategory())
+                .tags(blog.getTags() == null ? List.of() : blog.getTags().tags())
+                .views(blog.getViews() + viewCounter.unflushed(blog.getId()))
+                .build();
+    }
+
+    /**
+     * Converts an entry of the change feed into the entry returned to the client.
+     *
+     * @param change the change of a blog post
+     * @return the {@link PostChange}, with the current state of the post unless it was deleted
+     */
+    private PostChange postChange(Change change) {
+        return PostChange
+                .builder()
+                .id(change.postId())
+                .deleted(change.deleted())
+                .changedAt(change.changedAt())
+                .post(change.deleted() ? null : postData(change.blog()))
+                .build();
+    }
+
+    /**
+     * This method retrieves a Blog entity by its ID, from the {@link BlogCache} if possible.
+     * The returned entity may be shared with other requests and must not be modified.
      *
      * @param id the ID of the blog to be retrieved
      * @return the Blog entity with the specified ID
      * @throws BlogPostException if a blog with the given ID does not exist
      */
     private Blog getBlogById(int id) throws BlogPostException {
+        Blog cached = blogCache.getIfPresent(id);
+        if (cached != null) return cached;
+
+        // only the first of the concurrent requests for the post loads and caches it
+        return postLoads.execute(id, () -> {
+            long generation = blogCache.generation(id);
+            Blog blog = loadBlogById(id);
+            blogCache.put(blog, generation);
+
+            return blog;
+        });
+    }
+
+    /**
+     * Retrieves the blog posts with the given ids, keeping the order of the ids.
+     * Cached posts are taken from the {@link BlogCache}, the others are read with one query and cached.
+     * Ids of posts that were deleted in the meantime are skipped.
+     *
+     * @param ids the ids of the blog posts, in the order they must be returned
+     * @return the blog posts in the order of the ids
+     */
+    private List<Blog> getBlogsInOrder(List<Integer> ids) {
+        Map<Integer, Blog> blogsById = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (int id : ids) {
+            Blog cached = blogCache.getIfPresent(id);
+            if (cached != null) blogsById.put(id, cached);
+            else missing.add(id);
+        }
+
+        if (!missing.isEmpty()) {
+            Map<Integer, Long> generations = new HashMap<>();
+            missing.forEach(id -> generations.put(id, blogCache.generation(id)));
+            for (Blog blog : blogRepository.findAllById(missing)) {
+                blogCache.put(blog, generations.get(blog.getId()));
+                blogsById.put(blog.getId(), blog);
+            }
+        }
+
+        return ids.stream()
+                .map(blogsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * This method loads a Blog entity by its ID from the repository, bypassing the cache.
+     * If the blog with the given ID does not exist, it throws a BlogPostException with the appropriate cause.
+     *
+     * @param id the ID of the blog to be loaded
+     * @return the Blog entity with the specified ID
+     * @throws BlogPostException if a blog with the given ID does not exist
+     */
+    private Blog loadBlogById(int id) throws BlogPostException {
         Optional<Blog> optionalPost = blogRepository.findById(id);
-        if (optionalPost.isEmpty()) throw new BlogPostException(Causes.BLOG_ID_DOES_NOT_EXIST, new Throwable("The submitted id is not in the system"));
+        if (optionalPost.isEmpty()) throw new BlogPostException(Causes.BLOG_ID_DOES_NOT_EXIST, "The submitted id is not in the system");
 
         return optionalPost.get();
     }
- }
+
+    /**
+     * Identifies a page of search results, so that concurrent identical searches can be coalesced.
+     *
+     * @param term the search term
+     * @param cursor the cursor of the page, or null for the first page
+     * @param limit the size of the page
+     */
+    private record SearchKey(String term, String cursor, int limit) {}
+}
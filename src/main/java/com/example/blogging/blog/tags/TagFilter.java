@@ -0,0 +1,25 @@
+package com.example.blogging.blog.tags;
+
+import java.util.Set;
+
+/**
+ * Restricts a listing to the blog posts with the given tags.
+ *
+ * @param tagIds the ids of the known tags of the filter
+ * @param all    true if a post must have all the tags, false if any of them is enough
+ */
+public record TagFilter(
+        Set<Integer> tagIds,
+        boolean all
+) {
+
+    /**
+     * Checks whether no post can match the filter, because none of its tags is known,
+     * or because a post must have all the tags and one of them is unknown.
+     *
+     * @return true if no post can match the filter
+     */
+    public boolean matchesNothing() {
+        return tagIds.isEmpty();
+    }
+}
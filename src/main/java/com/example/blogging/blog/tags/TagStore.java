@@ -0,0 +1,183 @@
+package com.example.blogging.blog.tags;
+
+import com.example.blogging.blog.entities.Blog;
+import com.example.blogging.blog.entities.PostTag;
+import com.example.blogging.blog.entities.PostTagId;
+import com.example.blogging.blog.entities.Tag;
+import com.example.blogging.blog.entities.Tags;
+import com.example.blogging.blog.repositories.PostTagRepository;
+import com.example.blogging.blog.repositories.TagRepository;
+import com.example.blogging.exception.BlogPostException;
+import com.example.blogging.exception.Causes;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Keeps the normalized tags of the blog posts: a dictionary with one {@link Tag} per distinct name,
+ * and one {@link PostTag} row per tag of a post. The links are the only copy of the tags: the {@link Tags}
+ * of a {@link Blog} are read from them, and tag filters are answered from them.
+ * Names are compared trimmed and in lower case, so "#Java" and "#java " are the same tag.
+ * All methods must be called inside the transaction that writes the posts.
+ */
+@Component
+@RequiredArgsConstructor
+public class TagStore {
+
+    private final TagRepository tagRepository;
+    private final PostTagRepository postTagRepository;
+    private final EntityManager entityManager;
+
+    /**
+     * Links new blog posts to their tags, adding the tags that are not in the dictionary yet.
+     *
+     * @param blogs the saved blog posts
+     */
+    public void attach(List<Blog> blogs) {
+        Map<Integer, Set<String>> namesByPost = new LinkedHashMap<>();
+        Set<String> allNames = new HashSet<>();
+        for (Blog blog : blogs) {
+            Set<String> names = names(blog.getTags());
+            namesByPost.put(blog.getId(), names);
+            allNames.addAll(names);
+        }
+
+        // intern the names of the whole batch at once
+        Map<String, Integer> tagIds = intern(allNames);
+        namesByPost.forEach((postId, names) -> names.forEach(name -> link(postId, tagIds.get(name))));
+    }
+
+    /**
+     * Changes the tags of an existing blog post. Only the tags that were added or removed are written,
+     * the links of the tags the post keeps are left untouched.
+     *
+     * @param postId the ID of the blog post
+     * @param before the tags of the post before the change
+     * @param after the tags of the post after the change
+     */
+    public void update(int postId, Tags before, Tags after) {
+        Set<String> oldNames = names(before);
+        Set<String> newNames = names(after);
+
+        Set<String> removed = new HashSet<>(oldNames);
+        removed.removeAll(newNames);
+        Set<String> added = new HashSet<>(newNames);
+        added.removeAll(oldNames);
+
+        if (!removed.isEmpty()) {
+            List<Integer> removedIds = tagRepository.findByNameIn(removed).stream().map(Tag::getId).toList();
+            if (!removedIds.isEmpty()) postTagRepository.deletePostTags(postId, removedIds);
+        }
+
+        if (!added.isEmpty()) {
+            intern(added).values().forEach(tagId -> link(postId, tagId));
+        }
+    }
+
+    /**
+     * Removes the links of deleted blog posts. Tags stay in the dictionary even when no post uses them anymore.
+     *
+     * @param postIds the ids of the deleted blog posts
+     */
+    public void detach(Collection<Integer> postIds) {
+        if (!postIds.isEmpty()) postTagRepository.deleteByPostIds(postIds);
+    }
+
+    /**
+     * Resolves the tags of a listing filter to their ids.
+     *
+     * @param names the names of the tags
+     * @param match "all" if a post must have all the tags, "any" if any of them is enough
+     * @return the filter, or null if no tags are given
+     * @throws BlogPostException if the match mode is unknown
+     */
+    public TagFilter filter(List<String> names, String match) throws BlogPostException {
+        if (names == null || names.isEmpty()) return null;
+
+        boolean all;
+        if (match == null || match.equalsIgnoreCase("all")) all = true;
+        else if (match.equalsIgnoreCase("any")) all = false;
+        else throw new BlogPostException(Causes.INVALID_TAG_FILTER, "The match parameter must be \"all\" or \"any\"");
+
+        Set<String> normalized = new HashSet<>();
+        for (String name : names) {
+            if (name != null && !name.isBlank()) normalized.add(normalize(name));
+        }
+        if (normalized.isEmpty()) return null;
+
+        Set<Integer> tagIds = new HashSet<>();
+        tagRepository.findByNameIn(normalized).forEach(tag -> tagIds.add(tag.getId()));
+
+        // a post cannot have a tag that no post has ever had
+        if (all && tagIds.size() < normalized.size()) return new TagFilter(Set.of(), true);
+
+        return new TagFilter(tagIds, all);
+    }
+
+    // helper methods:
+    /**
+     * Returns the ids of the given tag names, adding the names that are not in the dictionary yet.
+     *
+     * @param names the normalized tag names
+     * @return the id of every name
+     */
+    private Map<String, Integer> intern(Set<String> names) {
+        Map<String, Integer> tagIds = new HashMap<>();
+        if (names.isEmpty()) return tagIds;
+
+        tagRepository.findByNameIn(names).forEach(tag -> tagIds.put(tag.getName(), tag.getId()));
+        if (tagIds.size() == names.size()) return tagIds;
+
+        // new tags are rare, insert them one by one and read back the ids the database assigned
+        Set<String> missing = new HashSet<>(names);
+        missing.removeAll(tagIds.keySet());
+        missing.forEach(tagRepository::insertIfAbsent);
+        tagRepository.findByNameIn(missing).forEach(tag -> tagIds.put(tag.getName(), tag.getId()));
+
+        return tagIds;
+    }
+
+    /**
+     * Links a blog post to a tag. The row is persisted directly, since its id is assigned by the caller
+     * and saving it through the repository would first select it to decide between insert and update.
+     *
+     * @param postId the ID of the blog post
+     * @param tagId the ID of the tag
+     */
+    private void link(int postId, int tagId) {
+        entityManager.persist(new PostTag(new PostTagId(postId, tagId)));
+    }
+
+    /**
+     * Returns the tags of a request as they read back once the post is saved: normalized, distinct and sorted.
+     *
+     * @param names the tags of the request, or null
+     * @return the normalized tags
+     */
+    public static Tags normalized(List<String> names) {
+        return new Tags(names(new Tags(names)).stream().sorted().toList());
+    }
+
+    /**
+     * Returns the distinct normalized names of the given tags, skipping blank ones.
+     *
+     * @param tags the tags of a blog post, or null
+     * @return the normalized tag names
+     */
+    public static Set<String> names(Tags tags) {
+        Set<String> names = new HashSet<>();
+        if (tags == null || tags.tags() == null) return names;
+
+        for (String name : tags.tags()) {
+            if (name != null && !name.isBlank()) names.add(normalize(name));
+        }
+
+        return names;
+    }
+
+    static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.blogging.blog.trending;
+
+import java.util.*;
+
+/**
+ * A Space-Saving heavy-hitters sketch over weighted blog post reads.
+ * It keeps at most {@code capacity} posts; a post that is not tracked yet takes the place of the
+ * post with the smallest weight and inherits that weight, so the weight of a tracked post
+ * overestimates its true weight by at most the weight it inherited. Every post whose true weight
+ * exceeds the total weight divided by the capacity is guaranteed to be tracked.
+ * Not thread-safe, {@link TrendingPosts} only uses it under a lock.
+ */
+class SpaceSaving {
+
+    private final int capacity;
+    private final Map<Integer, Counter> counters = new HashMap<>();
+
+    // the counters by weight, to find the smallest one in O(log capacity)
+    private final TreeSet<Counter> byWeight = new TreeSet<>(
+            Comparator.comparingDouble(Counter::weight).thenComparingInt(Counter::id)
+    );
+
+    SpaceSaving(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("the capacity must be positive");
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds weight to a blog post, evicting the lightest post if the sketch is full.
+     *
+     * @param id the ID of the blog post
+     * @param weight the weight to add
+     */
+    void offer(int id, double weight) {
+        Counter counter = counters.get(id);
+        if (counter != null) {
+            byWeight.remove(counter);
+            counter.weight += weight;
+            byWeight.add(counter);
+            return;
+        }
+
+        double inherited = 0;
+        if (counters.size() >= capacity) {
+            Counter lightest = byWeight.pollFirst();
+            counters.remove(lightest.id);
+            inherited = lightest.weight;
+        }
+
+        counter = new Counter(id, inherited + weight);
+        counters.put(id, counter);
+        byWeight.add(counter);
+    }
+
+    /**
+     * Stops tracking a blog post, e.g. because it was deleted.
+     *
+     * @param id the ID of the blog post
+     */
+    void remove(int id) {
+        Counter counter = counters.remove(id);
+        if (counter != null) byWeight.remove(counter);
+    }
+
+    /**
+     * Multiplies every weight by the same factor, which keeps their order.
+     *
+     * @param factor the factor to scale the weights with
+     */
+    void scale(double factor) {
+        // the weights are part of the ordering, so take them out of the tree while changing them
+        List<Counter> all = new ArrayList<>(byWeight);
+        byWeight.clear();
+        for (Counter counter : all) {
+            counter.weight *= factor;
+        }
+        byWeight.addAll(all);
+    }
+
+    /**
+     * Returns the heaviest tracked blog posts, heaviest first.
+     *
+     * @param k the maximum number of posts to return
+     * @return the ids of at most k blog posts
+     */
+    List<Integer> top(int k) {
+        List<Integer> top = new ArrayList<>(Math.min(k, byWeight.size()));
+        for (Iterator<Counter> iterator = byWeight.descendingIterator(); iterator.hasNext() && top.size() < k; ) {
+            top.add(iterator.next().id);
+        }
+        return top;
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    private static final class Counter {
+
+        private final int id;
+        private double weight;
+
+        Counter(int id, double weight) {
+            this.id = id;
+            this.weight = weight;
+        }
+
+        int id() {
+            return id;
+        }
+
+        double weight() {
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.blogging.blog.trending;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the most read blog posts of the recent past, for the trending posts endpoint.
+ * Reads are weighted with forward exponential decay: a read at time t weighs 2^((t - landmark) / half-life),
+ * so a read one half-life ago counts half as much as a read now, and the order of the posts never has
+ * to be recomputed as time passes. The weights go into a {@link SpaceSaving} sketch of bounded size.
+ * Reads only increment a per-post counter; the counters are drained into the sketch and the ranking
+ * is taken on every refresh, so that answering a request is a read of the last ranking.
+ */
+@Component
+public class TrendingPosts {
+
+    // the number of posts the endpoint returns by default
+    public static final int DEFAULT_TRENDING = 20;
+
+    // the largest number of posts the endpoint returns
+    public static final int MAX_TRENDING = 100;
+
+    // move the landmark before the weights get close to the range of a double
+    private static final double MAX_EXPONENT = 64;
+
+    private final double halfLifeMillis;
+    private final LongSupplier clock;
+
+    private final ConcurrentMap<Integer, LongAdder> pending = new ConcurrentHashMap<>();
+    private final SpaceSaving sketch;
+    private long landmark;
+
+    private volatile List<Integer> ranking = List.of();
+
+    @Autowired
+    public TrendingPosts(
+            @Value("${blog.trending.half-life:15m}") Duration halfLife,
+            @Value("${blog.trending.capacity:1000}") int capacity
+    ) {
+        this(halfLife, capacity, System::currentTimeMillis);
+    }
+
+    TrendingPosts(Duration halfLife, int capacity, LongSupplier clock) {
+        if (capacity < MAX_TRENDING) throw new IllegalArgumentException("the capacity must be at least " + MAX_TRENDING);
+
+        this.halfLifeMillis = halfLife.toMillis();
+        this.clock = clock;
+        this.sketch = new SpaceSaving(capacity);
+        this.landmark = clock.getAsLong();
+    }
+
+    /**
+     * Counts a read of a blog post.
+     *
+     * @param id the ID of the blog post
+     */
+    public void record(int id) {
+        pending.computeIfAbsent(id, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Returns the trending blog posts as of the last refresh.
+     *
+     * @param limit the maximum number of posts, at most {@link #MAX_TRENDING}
+     * @return the ids of the trending blog posts, most read first
+     */
+    public List<Integer> top(int limit) {
+        List<Integer> ranking = this.ranking;
+        return ranking.subList(0, Math.min(limit, ranking.size()));
+    }
+
+    /**
+     * Stops tracking deleted blog posts.
+     *
+     * @param ids the ids of the deleted blog posts
+     */
+    public synchronized void discard(Collection<Integer> ids) {
+        for (int id : ids) {
+            pending.remove(id);
+            sketch.remove(id);
+        }
+        ranking = List.copyOf(sketch.top(MAX_TRENDING));
+    }
+
+    /**
+     * Moves the counted reads into the sketch and ranks the posts again.
+     * A read counted while its counter is drained may be missed, which the ranking tolerates.
+     */
+    @Scheduled(fixedDelayString = "${blog.trending.refresh-interval:PT1S}")
+    public synchronized void refresh() {
+        long now = clock.getAsLong();
+        double exponent = (now - landmark) / halfLifeMillis;
+        if (exponent > MAX_EXPONENT) {
+            sketch.scale(Math.pow(2, -exponent));
+            landmark = now;
+            exponent = 0;
+        }
+
+        double weight = Math.pow(2, exponent);
+        for (Integer id : pending.keySet()) {
+            LongAdder reads = pending.remove(id);
+            if (reads != null) sketch.offer(id, reads.sum() * weight);
+        }
+
+        ranking = List.copyOf(sketch.top(MAX_TRENDING));
+    }
+}
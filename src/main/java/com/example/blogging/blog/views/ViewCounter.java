@@ -0,0 +1,166 @@
+package com.example.blogging.blog.views;
+
+import com.example.blogging.blog.cache.BlogCache;
+import com.example.blogging.exception.BlogPostException;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Counts the views of blog posts in memory and writes them behind to the database.
+ * Every read of a post only increments a {@link LongAdder}, so popular posts are counted without
+ * a row lock or an UPDATE per request. The views counted since the last flush are added to the
+ * views column periodically in one JDBC batch, and once more when the application shuts down.
+ * The UPDATE adds to the column instead of overwriting it, so several instances can count views
+ * of the same post. Views that were counted but not flushed yet are lost if the process is killed.
+ * Counters of posts that were not read since the last flush are removed, so that memory and the
+ * cost of a flush follow the posts read recently and not every post ever read.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ViewCounter {
+
+    static final String FLUSH_SQL = "UPDATE blog SET views = views + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlogCache blogCache;
+
+    private final ConcurrentMap<Integer, Counter> counters = new ConcurrentHashMap<>();
+
+    // counters removed by the last flush; a reader that got one just before it was removed may still
+    // count a view on it, so they are flushed once more before they are dropped
+    private Map<Integer, Counter> retired = Map.of();
+
+    /**
+     * Counts a view of a blog post.
+     *
+     * @param id the ID of the blog post
+     */
+    public void increment(int id) {
+        counters.computeIfAbsent(id, key -> new Counter()).views.increment();
+    }
+
+    /**
+     * Returns the views of a blog post that were counted but not flushed to the database yet.
+     *
+     * @param id the ID of the blog post
+     * @return the number of unflushed views
+     */
+    public long unflushed(int id) {
+        Counter counter = counters.get(id);
+        return counter == null ? 0 : counter.unflushed();
+    }
+
+    /**
+     * Returns the number of blog posts whose views are counted in memory.
+     *
+     * @return the number of counters
+     */
+    int size() {
+        return counters.size();
+    }
+
+    /**
+     * Stops counting the views of deleted blog posts.
+     *
+     * @param ids the ids of the deleted blog posts
+     */
+    public void discard(Collection<Integer> ids) {
+        ids.forEach(counters::remove);
+    }
+
+    /**
+     * Adds the views counted since the last flush to the database, in one batch.
+     * A failed flush is retried with the next one, the views stay counted in memory until then.
+     * The flushed views are added to the cached posts, so that reads keep returning the current count
+     * without evicting the posts that are read the most.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${blog.views.flush-interval:PT10S}", initialDelayString = "${blog.views.flush-interval:PT10S}")
+    public synchronized void flush() {
+        List<Integer> ids = new ArrayList<>();
+        List<Counter> flushed = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>();
+        Map<Integer, Counter> idle = new HashMap<>();
+
+        BiConsumer<Integer, Counter> collect = (id, counter) -> {
+            long delta = counter.unflushed();
+            if (delta == 0) return;
+
+            ids.add(id);
+            flushed.add(counter);
+            batch.add(new Object[]{delta, id});
+        };
+        retired.forEach(collect);
+        counters.forEach((id, counter) -> {
+            if (counter.unflushed() == 0) idle.put(id, counter);
+            else collect.accept(id, counter);
+        });
+        if (batch.isEmpty()) {
+            retire(idle);
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+        } catch (DataAccessException | BlogPostException e) {
+            // a database error, or no permit of the repository bulkhead became free in time
+            log.warn("could not flush the views of {} posts, retrying with the next flush", ids.size(), e);
+            return;
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            long delta = (long) batch.get(i)[0];
+            flushed.get(i).flushed += delta;
+            blogCache.addViews(ids.get(i), delta);
+        }
+        retire(idle);
+    }
+
+    // helper methods:
+    /**
+     * Removes the counters of posts that were not viewed since the last flush, unless they were viewed
+     * in the meantime. The conditional remove keeps a counter that was replaced, and the removed ones
+     * are flushed once more with the next flush.
+     *
+     * @param idle the counters that had nothing to flush
+     */
+    private void retire(Map<Integer, Counter> idle) {
+        Map<Integer, Counter> removed = new HashMap<>();
+        idle.forEach((id, counter) -> {
+            if (counter.unflushed() == 0 && counters.remove(id, counter)) removed.put(id, counter);
+        });
+        retired = removed;
+    }
+
+    /**
+     * The views of one blog post. The adder is never reset, so a view that is counted while
+     * the flush is running is never lost; it is simply part of the next flush.
+     */
+    private static final class Counter {
+
+        private final LongAdder views = new LongAdder();
+
+        // only written by the flush, which is synchronized
+        private volatile long flushed;
+
+        long unflushed() {
+            return views.sum() - flushed;
+        }
+    }
+}
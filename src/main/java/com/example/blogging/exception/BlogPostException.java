@@ -1,16 +1,28 @@
 package com.example.blogging.exception;
 
+import lombok.Getter;
+
+/**
+ * Signals a request that cannot be served, e.g. an unknown id or an invalid field.
+ * These are expected outcomes, not bugs, so the exception captures no stack trace and
+ * has no cause: throwing it costs about as much as allocating a small object, which keeps
+ * floods of requests for unknown ids cheap.
+ */
 public class BlogPostException extends RuntimeException{
 
     final Causes cause;
 
-    public BlogPostException(Causes cause, Throwable message) {
-        super(cause.label, message);
+    // what exactly was wrong with the request, or null
+    @Getter
+    private final String detail;
+
+    public BlogPostException(Causes cause, String detail) {
+        super(cause.label, null, false, false);
         this.cause = cause;
+        this.detail = detail;
     }
 
     public BlogPostException(Causes cause) {
-        super(cause.label);
-        this.cause = cause;
+        this(cause, null);
     }
 }
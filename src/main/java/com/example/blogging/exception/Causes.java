@@ -3,8 +3,17 @@ package com.example.blogging.exception;
 public enum Causes {
     NO_EMPTY_FIELDS_ALLOWED("No empty fields allowed"),
     THE_FOLLOWING_FIELDS_ARE_EMPTY("The following fields are empty: "),
+    THE_FOLLOWING_ITEMS_HAVE_EMPTY_FIELDS("The following items have empty fields: "),
     NULL_ITEM_RECEIVED("The blog body is null/empty"),
-    BLOG_ID_DOES_NOT_EXIST("id not found");
+    BLOG_ID_DOES_NOT_EXIST("id not found"),
+    INVALID_CURSOR("invalid cursor"),
+    INVALID_FIELDS("invalid fields"),
+    INVALID_TAG_FILTER("invalid tag filter"),
+    BATCH_TOO_LARGE("batch too large"),
+    INVALID_DELETE_REQUEST("invalid delete request"),
+    PRECONDITION_FAILED("the post does not match the submitted version"),
+    CONCURRENT_MODIFICATION("the post was modified concurrently"),
+    SERVICE_BUSY("the service is busy");
 
     public final String label;
     Causes(String label) {
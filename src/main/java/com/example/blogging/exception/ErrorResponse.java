@@ -1,19 +0,0 @@
-package com.example.blogging.exception;
-
-import com.fasterxml.jackson.annotation.JsonInclude;
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.Setter;
-import java.time.LocalDateTime;
-
-@Getter
-@Setter
-@AllArgsConstructor
-@JsonInclude(JsonInclude.Include.NON_NULL)
-public class ErrorResponse {
-    private LocalDateTime timeStamp;
-    private int status;
-    private String error;
-    private String cause;
-    private String path;
-}
@@ -1,34 +1,106 @@
 package com.example.blogging.exception;
 
+import com.example.blogging.blog.metrics.BlogMetrics;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
 
+/**
+ * Turns a {@link BlogPostException} into an error response.
+ * The status and the constant part of the JSON body of every cause are rendered once at startup,
+ * so that an error response only appends the time, the detail and the path to its template.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final BlogMetrics blogMetrics;
+    private final Map<Causes, ErrorTemplate> templates = new EnumMap<>(Causes.class);
+
+    public GlobalExceptionHandler(BlogMetrics blogMetrics) {
+        this.blogMetrics = blogMetrics;
+
+        for (Causes cause : Causes.values()) {
+            HttpStatus status = statusOf(cause);
+            templates.put(cause, new ErrorTemplate(status, ",\"status\":" + status.value() + ",\"error\":" + quote(cause.label)));
+        }
+    }
+
     @ExceptionHandler(BlogPostException.class)
-    public ResponseEntity<ErrorResponse> handleBlogPostExceptions(BlogPostException exception, WebRequest request) {
-        HttpStatus status = HttpStatus.OK; // set the default status
+    public ResponseEntity<String> handleBlogPostExceptions(BlogPostException exception, WebRequest request) {
         Causes cause = exception.cause;
         String path = ((ServletWebRequest) request).getRequest().getRequestURI();
+        blogMetrics.recordException(cause);
 
-        switch (cause) {
-            case NO_EMPTY_FIELDS_ALLOWED -> status = HttpStatus.BAD_REQUEST;
-            case BLOG_ID_DOES_NOT_EXIST -> status = HttpStatus.NOT_FOUND;
-        }
+        ErrorTemplate template = templates.get(cause);
+        return ResponseEntity.status(template.status())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body(template, exception.getDetail(), path, LocalDateTime.now()));
+    }
 
-         ErrorResponse errorResponse = new ErrorResponse(
-                 LocalDateTime.now(),
-                 status.value(),
-                 exception.getMessage(),
-                 exception.getCause().getMessage(),
-                 path
-         );
-         return new ResponseEntity<>(errorResponse, status);
+    // helper methods:
+    /**
+     * Returns the HTTP status of the responses to requests that failed with the given cause.
+     *
+     * @param cause the cause of the failure
+     * @return the status of the error response
+     */
+    static HttpStatus statusOf(Causes cause) {
+        return switch (cause) {
+            case NO_EMPTY_FIELDS_ALLOWED, THE_FOLLOWING_FIELDS_ARE_EMPTY, THE_FOLLOWING_ITEMS_HAVE_EMPTY_FIELDS,
+                 INVALID_CURSOR, INVALID_FIELDS, INVALID_TAG_FILTER, INVALID_DELETE_REQUEST -> HttpStatus.BAD_REQUEST;
+            case BATCH_TOO_LARGE -> HttpStatus.PAYLOAD_TOO_LARGE;
+            case PRECONDITION_FAILED -> HttpStatus.PRECONDITION_FAILED;
+            case CONCURRENT_MODIFICATION -> HttpStatus.CONFLICT;
+            case BLOG_ID_DOES_NOT_EXIST -> HttpStatus.NOT_FOUND;
+            case SERVICE_BUSY -> HttpStatus.SERVICE_UNAVAILABLE;
+            case NULL_ITEM_RECEIVED -> HttpStatus.INTERNAL_SERVER_ERROR;
+        };
     }
+
+    /**
+     * Renders the JSON body of an error response: the time, the template of the cause, the detail and the path.
+     *
+     * @param template the template of the cause
+     * @param detail the detail of the exception, or null
+     * @param path the path of the request
+     * @param timeStamp the time of the error
+     * @return the JSON body of the error response
+     */
+    String body(ErrorTemplate template, String detail, String path, LocalDateTime timeStamp) {
+        StringBuilder body = new StringBuilder(128)
+                .append("{\"timeStamp\":\"");
+        DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(timeStamp, body);
+        body.append('"').append(template.fields());
+
+        if (detail != null) body.append(",\"cause\":").append(quote(detail));
+        return body.append(",\"path\":").append(quote(path)).append('}').toString();
+    }
+
+    ErrorTemplate template(Causes cause) {
+        return templates.get(cause);
+    }
+
+    private static String quote(String value) {
+        return '"' + new String(JsonStringEncoder.getInstance().quoteAsString(value)) + '"';
+    }
+
+    /**
+     * The precomputed part of the error responses of one cause.
+     *
+     * @param status the status of the responses
+     * @param fields the status and error fields of the JSON body, with a leading comma
+     */
+    record ErrorTemplate(
+            HttpStatus status,
+            String fields
+    ) {}
 }
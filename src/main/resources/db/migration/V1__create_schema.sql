@@ -0,0 +1,37 @@
+-- The schema Hibernate used to create from the entities, now owned by the migrations.
+-- Written for PostgreSQL; the tests run it on H2 in PostgreSQL mode.
+
+-- ids are allocated in blocks of 50, see the @SequenceGenerator of Blog
+CREATE SEQUENCE blog_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE blog (
+    id         integer      NOT NULL,
+    version    bigint       DEFAULT 0 NOT NULL,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    tittle     varchar(255),
+    -- unbounded, long posts may be stored compressed and base64-encoded
+    content    text,
+    category   varchar(255),
+    -- the embedded Tags, kept on the post so that a read needs no join
+    tags       varchar(255) ARRAY,
+    -- written only by the view counter
+    views      bigint       DEFAULT 0 NOT NULL,
+    CONSTRAINT blog_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE tag (
+    id   integer GENERATED BY DEFAULT AS IDENTITY,
+    name varchar(255) NOT NULL,
+    CONSTRAINT tag_pkey PRIMARY KEY (id),
+    CONSTRAINT tag_name_key UNIQUE (name)
+);
+
+-- the primary key finds the tags of a post, the index finds the posts of a tag
+CREATE TABLE post_tag (
+    post_id integer NOT NULL,
+    tag_id  integer NOT NULL,
+    CONSTRAINT post_tag_pkey PRIMARY KEY (post_id, tag_id)
+);
+
+CREATE INDEX post_tag_tag_id_post_id_idx ON post_tag (tag_id, post_id);
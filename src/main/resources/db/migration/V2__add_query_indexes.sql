@@ -0,0 +1,9 @@
+-- Indexes for the query paths of BlogRepository.
+
+-- listing and streaming in NEWEST_FIRST order (created_at DESC, id DESC), and the keyset
+-- condition (created_at, id) < (?, ?) of the next pages: the first rows of the index are the page
+CREATE INDEX blog_created_at_id_idx ON blog (created_at DESC, id DESC);
+
+-- findIdsMatching with a category: equality on category, then ids in order from the last one,
+-- and the category facet counts, which group by category
+CREATE INDEX blog_category_id_idx ON blog (category, id);
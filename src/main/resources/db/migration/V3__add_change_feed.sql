@@ -0,0 +1,21 @@
+-- The change feed: every insert, update and delete of a post draws a number from change_seq,
+-- so the changes since a position are the rows with a larger number.
+
+CREATE SEQUENCE change_seq START WITH 1 INCREMENT BY 1;
+
+-- drawn by the default on insert and by BlogRepository.touchChangeSeq on update;
+-- existing posts are numbered when the column is added
+ALTER TABLE blog ADD COLUMN change_seq bigint DEFAULT nextval('change_seq') NOT NULL;
+
+CREATE UNIQUE INDEX blog_change_seq_idx ON blog (change_seq);
+
+-- the deleted posts, kept for blog.changes.tombstone-retention so that clients learn about deletes
+CREATE TABLE blog_tombstone (
+    change_seq bigint       DEFAULT nextval('change_seq') NOT NULL,
+    post_id    integer      NOT NULL,
+    deleted_at timestamp(6) NOT NULL,
+    CONSTRAINT blog_tombstone_pkey PRIMARY KEY (change_seq)
+);
+
+-- the purge deletes the tombstones older than the retention
+CREATE INDEX blog_tombstone_deleted_at_idx ON blog_tombstone (deleted_at);
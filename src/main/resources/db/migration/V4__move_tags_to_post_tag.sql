@@ -0,0 +1,19 @@
+-- The tags of the posts are kept in post_tag only. Posts written before the tags were normalized
+-- are linked here, before the application starts serving, and their embedded copy is dropped.
+-- Both inserts skip rows that already exist, so links written in the meantime are kept.
+-- The positions of the array elements come from a recursive query, which PostgreSQL and H2 both run.
+
+WITH RECURSIVE tag_index (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM tag_index WHERE n < (SELECT MAX(CARDINALITY(tags)) FROM blog))
+INSERT INTO tag (name)
+SELECT DISTINCT LOWER(TRIM(b.tags[i.n]))
+FROM blog b JOIN tag_index i ON i.n <= CARDINALITY(b.tags)
+WHERE TRIM(b.tags[i.n]) <> ''
+ON CONFLICT DO NOTHING;
+
+WITH RECURSIVE tag_index (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM tag_index WHERE n < (SELECT MAX(CARDINALITY(tags)) FROM blog))
+INSERT INTO post_tag (post_id, tag_id)
+SELECT DISTINCT b.id, t.id
+FROM blog b JOIN tag_index i ON i.n <= CARDINALITY(b.tags) JOIN tag t ON t.name = LOWER(TRIM(b.tags[i.n]))
+ON CONFLICT DO NOTHING;
+
+ALTER TABLE blog DROP COLUMN tags;
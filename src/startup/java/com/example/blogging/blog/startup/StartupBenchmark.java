@@ -0,0 +1,143 @@
+package com.example.blogging.blog.startup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Measures the time from launching the application to its first successful GET of the posts,
+ * in several startup modes, and writes the results as JSON so that they can be tracked over builds.
+ * The modes are the extracted jar as is ({@code jar}), with the AOT-generated initializers ({@code aot}),
+ * and with the initializers and the class-data sharing archive of the training run ({@code aot-cds}).
+ * The application runs with the dev and fast-startup profiles, so the database is taken from the
+ * DB_URL, DB_USERNAME, DB_PASSWORD and DB_DRIVER_NAME environment variables and must have the schema.
+ *
+ * <p>Options are passed as {@code key=value} arguments:
+ * <ul>
+ *     <li>{@code jar}: the extracted application jar</li>
+ *     <li>{@code archive}: the class-data sharing archive</li>
+ *     <li>{@code modes}: the modes to measure, default jar,aot,aot-cds</li>
+ *     <li>{@code runs}: the launches per mode, default 5</li>
+ *     <li>{@code port}: the port of the application, default 8042</li>
+ *     <li>{@code timeout}: how long to wait for the first response, default 120s</li>
+ *     <li>{@code output}: the JSON result file, default target/startup-result.json</li>
+ * </ul>
+ */
+public final class StartupBenchmark {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    private final Map<String, String> options;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private StartupBenchmark(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) throw new IllegalArgumentException("expected key=value, got " + arg);
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        new StartupBenchmark(options).run();
+    }
+
+    private void run() throws Exception {
+        List<String> modes = List.of(options.getOrDefault("modes", "jar,aot,aot-cds").split(","));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+
+        StringBuilder json = new StringBuilder("{\n  \"unit\": \"ms\",\n  \"modes\": {");
+        System.out.printf("%-10s %10s %10s %10s%n", "mode", "min ms", "median ms", "max ms");
+        for (int m = 0; m < modes.size(); m++) {
+            String mode = modes.get(m).trim();
+
+            // one launch to warm up the file system cache, which is not measured
+            launch(mode);
+            long[] millis = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = launch(mode);
+            }
+            Arrays.sort(millis);
+
+            long median = millis[runs / 2];
+            System.out.printf("%-10s %10d %10d %10d%n", mode, millis[0], median, millis[runs - 1]);
+            json.append(m == 0 ? "\n" : ",\n")
+                    .append("    \"").append(mode).append("\": {\"min\": ").append(millis[0])
+                    .append(", \"median\": ").append(median)
+                    .append(", \"max\": ").append(millis[runs - 1])
+                    .append(", \"runs\": ").append(Arrays.toString(millis)).append('}');
+        }
+        json.append("\n  }\n}\n");
+
+        Path output = Path.of(options.getOrDefault("output", "target/startup-result.json"));
+        Files.writeString(output, json);
+        System.out.printf("%nwrote %s%n", output.toAbsolutePath());
+    }
+
+    /**
+     * Launches the application in the given mode and waits for its first successful GET.
+     *
+     * @param mode the startup mode
+     * @return the milliseconds from the launch to the first successful response
+     */
+    private long launch(String mode) throws IOException, InterruptedException {
+        String port = options.getOrDefault("port", "8042");
+        URI uri = URI.create("http://localhost:" + port + "/blog/api/v1/posts?limit=1");
+        Duration timeout = Duration.parse("PT" + options.getOrDefault("timeout", "120s").toUpperCase(Locale.ROOT));
+
+        List<String> command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        switch (mode) {
+            case "jar" -> {
+            }
+            case "aot" -> command.add("-Dspring.aot.enabled=true");
+            case "aot-cds" -> {
+                command.add("-Dspring.aot.enabled=true");
+                command.add("-XX:SharedArchiveFile=" + required("archive"));
+            }
+            default -> throw new IllegalArgumentException("unknown mode " + mode);
+        }
+        command.addAll(List.of("-jar", required("jar"), "--server.port=" + port, "--spring.profiles.active=dev,fast-startup"));
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectErrorStream(true)
+                .start();
+        try {
+            long deadline = started + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) throw new IllegalStateException(mode + ": the application exited with " + process.exitValue());
+                if (succeeds(uri)) return (System.nanoTime() - started) / 1_000_000;
+                Thread.sleep(POLL_INTERVAL);
+            }
+            throw new IllegalStateException(mode + ": no successful response within " + timeout);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private boolean succeeds(URI uri) throws InterruptedException {
+        try {
+            return client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            // not listening yet
+            return false;
+        }
+    }
+
+    private String required(String option) {
+        String value = options.get(option);
+        if (value == null) throw new IllegalArgumentException("the " + option + " option is required");
+        return value;
+    }
+}
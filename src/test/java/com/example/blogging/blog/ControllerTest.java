@@ -1,21 +1,25 @@
 package com.example.blogging.blog;
 
+import com.example.blogging.blog.cache.ResponseBytesCache;
 import com.example.blogging.blog.entities.Blog;
 import com.example.blogging.blog.entities.Tags;
 import com.example.blogging.blog.repositories.BlogRepository;
 import com.example.blogging.blog.requests.BlogPost;
 import com.example.blogging.blog.responses.CreatedBlogPostData;
+import com.example.blogging.blog.responses.PostVersion;
 import com.example.blogging.blog.responses.Response;
 import com.example.blogging.blog.services.BlogServiceImpl;
 import com.example.blogging.exception.BlogPostException;
 import com.example.blogging.exception.Causes;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -29,7 +33,8 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 
 class ControllerTest {
@@ -44,15 +49,19 @@ class ControllerTest {
     @Mock
     BlogServiceImpl blogService;
 
+    @Mock
+    ResponseBytesCache responseBytesCache;
+
     private AutoCloseable autoCloseable;
 
 
     @BeforeEach
     void setUp() {
         autoCloseable = MockitoAnnotations.openMocks(this);
-        Controller blogController = new Controller(blogService);
+        Controller blogController = new Controller(blogService, responseBytesCache);
         mockMvc = MockMvcBuilders.standaloneSetup(blogController).build();
-        objectMapper = new ObjectMapper();
+        // with the java.time module, so that the fixtures serialize the timestamps of the posts
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
     }
 
     @AfterEach
@@ -159,4 +168,63 @@ class ControllerTest {
         String body = postResult.getResponse().getContentAsString();
         System.out.println(body);
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenTheETagOfTheBlogPostIsUnchanged_ReturnNotModifiedWithoutLoadingThePost() throws Exception {
+        Blog blog = blog();
+        PostVersion version = PostVersion.of(blog);
+
+        when(blogService.getBlogVersion(blog.getId())).thenReturn(version);
+
+        // sending the revalidation request to the controller
+        mockMvc.perform(
+                        MockMvcRequestBuilders
+                                .get("/blog/api/v1/posts/" + blog.getId())
+                                .header(HttpHeaders.IF_NONE_MATCH, version.weakETag()))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        // assertions
+        verify(blogService, never()).getSingleBlogPostById(anyInt());
+    }
+
+    @Test
+    void whenTheETagOfTheBlogPostHasChanged_ReturnTheBlogPost() throws Exception {
+        Blog blog = blog();
+
+        when(blogService.getBlogVersion(blog.getId())).thenReturn(PostVersion.of(blog));
+        when(blogService.getSingleBlogPostById(blog.getId())).thenReturn(ResponseEntity.ok(postResponse(blog)));
+
+        // sending the revalidation request with an outdated entity tag to the controller
+        mockMvc.perform(
+                        MockMvcRequestBuilders
+                                .get("/blog/api/v1/posts/" + blog.getId())
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"1-0\""))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    void whenTheResponseBytesCacheIsEnabled_ReturnTheEncodedBlogPost() throws Exception {
+        Blog blog = blog();
+        byte[] body = objectMapper.writeValueAsBytes(postResponse(blog));
+
+        when(responseBytesCache.isEnabled()).thenReturn(true);
+        when(blogService.getEncodedBlogPostById(blog.getId(), true)).thenReturn(
+                ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body));
+
+        // sending a request that accepts gzip to the controller
+        mockMvc.perform(
+                        MockMvcRequestBuilders
+                                .get("/blog/api/v1/posts/" + blog.getId())
+                                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andDo(print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(MockMvcResultMatchers.content().bytes(body));
+
+        // assertions: without a conditional header the version is not looked up on its own
+        verify(blogService, never()).getSingleBlogPostById(anyInt());
+        verify(blogService, never()).getBlogVersion(anyInt());
+    }
+}
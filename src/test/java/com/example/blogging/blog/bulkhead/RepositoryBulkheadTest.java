@@ -0,0 +1,117 @@
+package com.example.blogging.blog.bulkhead;
+
+import com.example.blogging.blog.repositories.BlogRepository;
+import com.example.blogging.blog.repositories.TagRepository;
+import com.example.blogging.exception.BlogPostException;
+import com.example.blogging.exception.Causes;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RepositoryBulkheadTest {
+
+    RepositoryBulkhead bulkhead = new RepositoryBulkhead(1, 1, Duration.ofMillis(50));
+
+    // create a join point for the given repository method that returns the given result
+    ProceedingJoinPoint joinPoint(String method, Object result, Class<?>... parameterTypes) throws Throwable {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(BlogRepository.class.getMethod(method, parameterTypes));
+
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenReturn(result);
+
+        return joinPoint;
+    }
+
+    @Test
+    void whenAQueryCompletes_releaseItsPermit() throws Throwable {
+        ProceedingJoinPoint findById = joinPoint("findUpdatedAtById", null, int.class);
+
+        bulkhead.limit(findById);
+        bulkhead.limit(findById);
+
+        // assertions
+        BulkheadStatistics reads = bulkhead.statistics().get(0);
+        assertEquals(2, reads.acquired());
+        assertEquals(1, reads.available());
+    }
+
+    @Test
+    void whenAllSearchPermitsAreTaken_rejectTheNextSearchButNotTheReads() throws Throwable {
+        Stream<?> open = (Stream<?>) bulkhead.limit(joinPoint("streamAll", Stream.of(1, 2)));
+
+        BlogPostException exception = assertThrows(BlogPostException.class, () -> bulkhead.limit(joinPoint("streamAll", Stream.empty())));
+        bulkhead.limit(joinPoint("findUpdatedAtById", null, int.class));
+
+        // assertions: the open stream holds the only search permit until it is closed
+        assertEquals(Causes.SERVICE_BUSY.label, exception.getMessage());
+        List<BulkheadStatistics> statistics = bulkhead.statistics();
+        assertEquals(1, statistics.get(0).acquired());
+        assertEquals(1, statistics.get(1).rejected());
+        assertEquals(0, statistics.get(1).available());
+
+        open.close();
+        assertEquals(1, bulkhead.statistics().get(1).available());
+    }
+
+    @Test
+    void whenAQueryFails_releaseItsPermit() throws Throwable {
+        ProceedingJoinPoint failing = joinPoint("streamAll", null);
+        when(failing.proceed()).thenThrow(new IllegalStateException("connection lost"));
+
+        assertThrows(IllegalStateException.class, () -> bulkhead.limit(failing));
+
+        // assertions
+        assertEquals(1, bulkhead.statistics().get(1).available());
+    }
+
+    @Test
+    void whenQueriesRunInATransaction_holdOnePermitUntilTheTransactionCompletes() throws Throwable {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bulkhead.limit(joinPoint("findUpdatedAtById", null, int.class));
+            bulkhead.limit(joinPoint("findUpdatedAtById", null, int.class));
+            bulkhead.limit(joinPoint("streamAll", Stream.empty()));
+
+            // assertions: the later queries run on the permit of the first, none of them is rejected
+            assertEquals(1, bulkhead.statistics().get(0).acquired());
+            assertEquals(0, bulkhead.statistics().get(0).available());
+            assertEquals(0, bulkhead.statistics().get(1).acquired());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, bulkhead.statistics().get(0).available());
+        assertFalse(TransactionSynchronizationManager.hasResource(bulkhead));
+    }
+
+    @Test
+    void whenOtherRepositoriesOrJdbcTemplateQuery_takeAReadPermit() {
+        AspectJProxyFactory tags = new AspectJProxyFactory(mock(TagRepository.class));
+        tags.addAspect(bulkhead);
+        AspectJProxyFactory jdbc = new AspectJProxyFactory(mock(JdbcTemplate.class));
+        jdbc.addAspect(bulkhead);
+
+        tags.<TagRepository>getProxy().findByNameIn(List.of("#java"));
+        jdbc.<JdbcOperations>getProxy().batchUpdate("UPDATE blog SET views = views + ? WHERE id = ?", List.<Object[]>of());
+
+        // assertions
+        assertEquals(2, bulkhead.statistics().get(0).acquired());
+        assertEquals(1, bulkhead.statistics().get(0).available());
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.blogging.blog.cache;
+
+import com.example.blogging.blog.entities.Blog;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlogCacheTest {
+
+    BlogCache blogCache = new BlogCache(100, Duration.ofMinutes(10));
+
+    Blog blog(int id, long version) {
+        Blog blog = new Blog();
+        blog.setId(id);
+        blog.setVersion(version);
+        return blog;
+    }
+
+    @Test
+    void whenThePostIsInvalidatedWhileItIsLoaded_doNotCacheTheLoadedVersion() {
+        long generation = blogCache.generation(1);
+        blogCache.invalidate(1);
+
+        blogCache.put(blog(1, 1), generation);
+
+        // assertions: the next read loads the committed version
+        assertNull(blogCache.getIfPresent(1));
+    }
+
+    @Test
+    void whenAnOlderVersionIsLoadedAfterANewerOne_keepTheNewerOne() {
+        Blog newer = blog(1, 2);
+        blogCache.put(newer, blogCache.generation(1));
+
+        blogCache.put(blog(1, 1), blogCache.generation(1));
+
+        // assertions
+        assertSame(newer, blogCache.getIfPresent(1));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.blogging.blog.cache;
+
+import com.example.blogging.blog.responses.CreatedBlogPostData;
+import com.example.blogging.blog.responses.PostVersion;
+import com.example.blogging.blog.responses.Response;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncodedPostTest {
+
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    Response<CreatedBlogPostData> response(long views) {
+        return Response.<CreatedBlogPostData>builder()
+                .status(200)
+                .message("success")
+                .data(CreatedBlogPostData.builder()
+                        .id(1)
+                        .title("Unit Testing")
+                        .content("All programmers must practice unit testing. ".repeat(50))
+                        .category("Software Development")
+                        .tags(List.of("#software", "#java"))
+                        .createdAt(updatedAt)
+                        .updatedAt(updatedAt)
+                        .views(views)
+                        .build())
+                .build();
+    }
+
+    static byte[] gunzip(byte[] gzip) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return input.readAllBytes();
+        }
+    }
+
+    @Test
+    void whenTheViewsChange_spliceTheNewCountIntoTheEncodedResponse() throws Exception {
+        EncodedPost encoded = EncodedPost.of(objectMapper.writeValueAsBytes(response(7)), 7);
+
+        // assertions: the spliced body is what Jackson writes for the new count
+        assertArrayEquals(objectMapper.writeValueAsBytes(response(12345)), encoded.identity(12345));
+        assertArrayEquals(objectMapper.writeValueAsBytes(response(0)), encoded.identity(0));
+    }
+
+    @Test
+    void whenTheClientAcceptsGzip_returnAValidGzipStreamOfTheSameBody() throws Exception {
+        EncodedPost encoded = EncodedPost.of(objectMapper.writeValueAsBytes(response(7)), 7);
+
+        // assertions: the stream inflates and passes the CRC-32 and length checks of GZIPInputStream
+        for (long views : new long[]{0, 8, 1_000_000_000_000L}) {
+            byte[] gzip = encoded.gzip(views);
+            assertArrayEquals(encoded.identity(views), gunzip(gzip));
+            assertTrue(gzip.length < encoded.identity(views).length);
+        }
+    }
+
+    @Test
+    void whenTheViewsAreNotTheLastField_refuseToEncode() {
+        byte[] json = "{\"views\":7,\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+        // assertions:
+        assertThrows(IllegalStateException.class, () -> EncodedPost.of(json, 7));
+    }
+
+    @Test
+    void whenAVersionIsCached_encodeItOnlyOnce() {
+        ResponseBytesCache cache = new ResponseBytesCache(true, DataSize.ofMegabytes(1), objectMapper);
+        PostVersion version = new PostVersion(1, updatedAt);
+        AtomicInteger encodings = new AtomicInteger();
+
+        cache.get(version, () -> { encodings.incrementAndGet(); return response(1); });
+        cache.get(version, () -> { encodings.incrementAndGet(); return response(2); });
+        cache.get(new PostVersion(1, updatedAt.plusSeconds(1)), () -> { encodings.incrementAndGet(); return response(3); });
+
+        // assertions: a new version is a new entry
+        assertEquals(2, encodings.get());
+    }
+
+    @Test
+    void whenTheAcceptEncodingHeaderIsParsed_honourZeroQualities() {
+        // assertions:
+        assertTrue(ResponseBytesCache.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ResponseBytesCache.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(ResponseBytesCache.acceptsGzip("*"));
+        assertFalse(ResponseBytesCache.acceptsGzip("gzip;q=0"));
+        assertFalse(ResponseBytesCache.acceptsGzip("deflate, br"));
+        assertFalse(ResponseBytesCache.acceptsGzip(null));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.blogging.blog.changes;
+
+import com.example.blogging.blog.entities.Blog;
+import com.example.blogging.blog.entities.Tombstone;
+import com.example.blogging.blog.pagination.ChangeCursor;
+import com.example.blogging.blog.repositories.BlogRepository;
+import com.example.blogging.blog.repositories.TombstoneRepository;
+import com.example.blogging.exception.BlogPostException;
+import com.example.blogging.exception.Causes;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ChangeFeedTest {
+
+    LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+    BlogRepository blogRepository = mock(BlogRepository.class);
+    TombstoneRepository tombstoneRepository = mock(TombstoneRepository.class);
+    ChangeFeed changeFeed = new ChangeFeed(
+            blogRepository,
+            tombstoneRepository,
+            Duration.ofSeconds(5),
+            Duration.ofDays(30),
+            Clock.fixed(now.toInstant(ZoneOffset.UTC), ZoneId.of("UTC"))
+    );
+
+    Blog blog(int id, long changeSeq, LocalDateTime updatedAt) {
+        Blog blog = new Blog();
+        blog.setId(id);
+        blog.setChangeSeq(changeSeq);
+        blog.setUpdatedAt(updatedAt);
+
+        return blog;
+    }
+
+    @Test
+    void whenPostsChangedAndWereDeleted_returnTheChangesInTheOrderTheyWereMade() {
+        LocalDateTime earlier = now.minusMinutes(1);
+        when(blogRepository.findChangedAfter(eq(10L), any(Pageable.class))).thenReturn(List.of(blog(1, 11, earlier), blog(3, 14, earlier)));
+        when(tombstoneRepository.findTombstonesAfter(eq(10L), any(Pageable.class))).thenReturn(List.of(new Tombstone(12, 2, earlier)));
+
+        ChangePage page = changeFeed.changesAfter(new ChangeCursor(10, now.minusDays(1)), 100);
+
+        // assertions:
+        assertEquals(List.of(11L, 12L, 14L), page.changes().stream().map(Change::changeSeq).toList());
+        assertEquals(List.of(false, true, false), page.changes().stream().map(Change::deleted).toList());
+        assertEquals(new ChangeCursor(14, now), page.next());
+    }
+
+    @Test
+    void whenAChangeIsYoungerThanTheSettleTime_endThePageBeforeIt() {
+        when(blogRepository.findChangedAfter(anyLong(), any(Pageable.class))).thenReturn(List.of(
+                blog(1, 11, now.minusMinutes(1)),
+                blog(2, 12, now.minusSeconds(1)),
+                blog(3, 13, now.minusMinutes(1))
+        ));
+
+        ChangePage page = changeFeed.changesAfter(changeFeed.start(), 100);
+
+        // assertions: the third post was numbered after the second, so it waits for the next page too
+        assertEquals(List.of(11L), page.changes().stream().map(Change::changeSeq).toList());
+        assertEquals(11, page.next().changeSeq());
+    }
+
+    @Test
+    void whenThePageIsFull_keepTheTimeTheClientLastCaughtUp() {
+        LocalDateTime caughtUpAt = now.minusDays(2);
+        when(blogRepository.findChangedAfter(anyLong(), any(Pageable.class))).thenReturn(List.of(
+                blog(1, 11, now.minusDays(3)),
+                blog(2, 12, now.minusDays(3))
+        ));
+
+        ChangePage page = changeFeed.changesAfter(new ChangeCursor(10, caughtUpAt), 2);
+
+        // assertions: more changes may follow, made before the cursor was issued
+        assertEquals(new ChangeCursor(12, caughtUpAt), page.next());
+    }
+
+    @Test
+    void whenNothingChanged_returnTheSamePosition() {
+        ChangePage page = changeFeed.changesAfter(new ChangeCursor(42, now.minusHours(1)), 100);
+
+        // assertions:
+        assertTrue(page.changes().isEmpty());
+        assertEquals(new ChangeCursor(42, now), page.next());
+    }
+
+    @Test
+    void whenTheCursorIsOlderThanTheTombstoneRetention_Throw_INVALID_CURSOR_Exception() {
+        ChangeCursor cursor = new ChangeCursor(42, now.minusDays(31));
+
+        BlogPostException exception = assertThrows(BlogPostException.class, () -> changeFeed.changesAfter(cursor, 100));
+
+        // assertions:
+        assertEquals(Causes.INVALID_CURSOR.label, exception.getMessage());
+        verifyNoInteractions(blogRepository, tombstoneRepository);
+    }
+
+    @Test
+    void whenTheCursorIsEncoded_decodeTheSamePosition() {
+        ChangeCursor cursor = new ChangeCursor(42, now);
+
+        // assertions:
+        assertEquals(cursor, ChangeCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void whenPurging_keepTheTombstonesCursorsMayStillNeed() {
+        changeFeed.purge();
+
+        // assertions:
+        verify(tombstoneRepository).deleteTombstonesBefore(now.minusDays(30).minusSeconds(5));
+    }
+}
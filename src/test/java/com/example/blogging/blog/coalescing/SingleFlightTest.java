@@ -0,0 +1,92 @@
+package com.example.blogging.blog.coalescing;
+
+import com.example.blogging.exception.BlogPostException;
+import com.example.blogging.exception.Causes;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    SingleFlight<Integer, String> singleFlight = new SingleFlight<>("post");
+
+    // run the call for the given key on the given number of threads while the first call is blocked
+    List<Future<String>> callConcurrently(ExecutorService executor, int callers, CountDownLatch release, AtomicInteger runs, RuntimeException failure) throws InterruptedException {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> singleFlight.execute(7, () -> {
+                runs.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                if (failure != null) throw failure;
+                return "post 7";
+            })));
+        }
+
+        // wait until every caller but the one running the call is waiting for it
+        while (singleFlight.statistics().coalesced() < callers - 1) {
+            Thread.sleep(1);
+        }
+
+        return results;
+    }
+
+    @Test
+    void whenTheSameKeyIsRequestedConcurrently_runTheCallOnceAndShareTheResult() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = callConcurrently(executor, 50, release, runs, null);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("post 7", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        // assertions
+        assertEquals(1, runs.get());
+        assertEquals(49, singleFlight.statistics().coalesced());
+        assertEquals(0, singleFlight.statistics().inFlight());
+    }
+
+    @Test
+    void whenTheCallFails_throwTheSameExceptionToEveryCaller() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        BlogPostException failure = new BlogPostException(Causes.BLOG_ID_DOES_NOT_EXIST);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = callConcurrently(executor, 10, release, runs, failure);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertSame(failure, exception.getCause());
+            }
+        }
+
+        // assertions
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void whenACallHasFinished_runTheNextCallAgain() {
+        AtomicInteger runs = new AtomicInteger();
+
+        singleFlight.execute(7, () -> "post " + runs.incrementAndGet());
+        String second = singleFlight.execute(7, () -> "post " + runs.incrementAndGet());
+
+        // assertions
+        assertEquals("post 2", second);
+        assertEquals(0, singleFlight.statistics().coalesced());
+    }
+}
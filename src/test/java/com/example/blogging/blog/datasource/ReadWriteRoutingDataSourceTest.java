@@ -0,0 +1,115 @@
+package com.example.blogging.blog.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.h2.Driver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes between three local H2 databases, each of which knows its own name.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    ReadWriteRoutingDataSource routingDataSource;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate readOnly;
+    TransactionTemplate readWrite;
+
+    static DataSource database(String name) {
+        DataSource dataSource = new SimpleDriverDataSource(new Driver(), "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource = new ReadWriteRoutingDataSource(database("primary"), List.of(database("replica1"), database("replica2")));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void whenATransactionIsReadOnly_readFromTheReplicasInTurn() {
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(readOnly.execute(status -> node()));
+        }
+
+        // assertions:
+        assertEquals(List.of("replica1", "replica2", "replica1", "replica2"), nodes);
+    }
+
+    @Test
+    void whenATransactionWritesOrThereIsNone_useThePrimary() {
+        // assertions:
+        assertEquals("primary", readWrite.execute(status -> node()));
+        assertEquals("primary", node());
+    }
+
+    @Test
+    void whenTheClientWroteRecently_readFromThePrimary() {
+        ReadYourWrites.requirePrimary();
+
+        // assertions:
+        assertEquals("primary", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    void whenAClientWrites_sendItsReadsToThePrimaryForTheWindow() throws Exception {
+        long[] now = {1_000_000};
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5), () -> now[0]);
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+
+        MockHttpServletResponse written = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/blog/api/v1/posts"), written, (req, res) -> {});
+        Cookie cookie = written.getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(cookie);
+
+        // a read within the window
+        now[0] += 4_000;
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/blog/api/v1/posts/1");
+        read.setCookies(cookie);
+        filter.doFilter(read, new MockHttpServletResponse(), (req, res) -> primaryRequired.set(ReadYourWrites.isPrimaryRequired()));
+        assertTrue(primaryRequired.get());
+        assertFalse(ReadYourWrites.isPrimaryRequired());
+
+        // a read after the window
+        now[0] += 2_000;
+        MockHttpServletRequest late = new MockHttpServletRequest("GET", "/blog/api/v1/posts/1");
+        late.setCookies(cookie);
+        filter.doFilter(late, new MockHttpServletResponse(), (req, res) -> primaryRequired.set(ReadYourWrites.isPrimaryRequired()));
+        assertFalse(primaryRequired.get());
+    }
+}
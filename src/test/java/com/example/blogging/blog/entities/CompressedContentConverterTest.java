@@ -0,0 +1,79 @@
+package com.example.blogging.blog.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedContentConverterTest {
+
+    CompressedContentConverter converter = new CompressedContentConverter(true, 64, "index");
+
+    // create a compressible text of the given length
+    String content(int length) {
+        StringBuilder content = new StringBuilder(length);
+        while (content.length() < length) {
+            content.append("All programmers must practice unit testing! ");
+        }
+
+        return content.substring(0, length);
+    }
+
+    @Test
+    void whenTheContentIsLong_storeItCompressedAndReadItBack() {
+        String content = content(10_000) + " éè ☃";
+
+        String column = converter.convertToDatabaseColumn(content);
+
+        // assertions
+        assertTrue(column.startsWith(CompressedContentConverter.MARKER));
+        assertTrue(column.length() < content.length() / 4);
+        assertEquals(content, converter.convertToEntityAttribute(column));
+    }
+
+    @Test
+    void whenTheContentIsShorterThanTheThreshold_storeItAsIs() {
+        String content = content(63);
+
+        // assertions
+        assertEquals(content, converter.convertToDatabaseColumn(content));
+    }
+
+    @Test
+    void whenTheContentDoesNotShrink_storeItAsIs() {
+        // random printable characters, which base64 makes longer than deflate makes them shorter
+        Random random = new Random(42);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1_000; i++) {
+            content.append((char) (33 + random.nextInt(94)));
+        }
+
+        // assertions
+        assertEquals(content.toString(), converter.convertToDatabaseColumn(content.toString()));
+    }
+
+    @Test
+    void whenCompressionIsDisabled_storeAsIsButStillReadCompressedRows() {
+        CompressedContentConverter disabled = new CompressedContentConverter(false, 64, "like");
+        String content = content(10_000);
+        String column = converter.convertToDatabaseColumn(content);
+
+        // assertions
+        assertEquals(content, disabled.convertToDatabaseColumn(content));
+        assertEquals(content, disabled.convertToEntityAttribute(column));
+    }
+
+    @Test
+    void whenARowWasWrittenBeforeCompression_readItAsIs() {
+        // assertions
+        assertEquals("plain content", converter.convertToEntityAttribute("plain content"));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void whenCompressionIsEnabledWithTheLikeSearch_refuseToStart() {
+        // assertions
+        assertThrows(IllegalStateException.class, () -> new CompressedContentConverter(true, 64, "like"));
+    }
+}
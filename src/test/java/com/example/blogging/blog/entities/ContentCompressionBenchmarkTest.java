@@ -0,0 +1,93 @@
+package com.example.blogging.blog.entities;
+
+import com.example.blogging.blog.repositories.BlogRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures the characters stored and the write and read latency of posts of different content sizes,
+ * with content compression enabled. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@ActiveProfiles("h2")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"blog.content.compression.enabled=true", "blog.content.compression.threshold=2048"}
+)
+class ContentCompressionBenchmarkTest {
+
+    private static final int POSTS = 200;
+    private static final int[] SIZES = {512, 2_048, 16_384, 131_072};
+    private static final String[] WORDS = {
+            "the", "post", "java", "database", "index", "query", "cache", "spring", "latency", "throughput",
+            "a", "of", "to", "and", "is", "with", "for", "compression", "storage", "page", "reader", "writer"
+    };
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    // create a prose-like text of the given length
+    String content(Random random, int length) {
+        StringBuilder content = new StringBuilder(length);
+        while (content.length() < length) {
+            content.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(12) == 0 ? ". " : " ");
+        }
+
+        return content.substring(0, length);
+    }
+
+    Blog blog(String content) {
+        Blog blog = new Blog();
+        blog.setCreatedAt(LocalDateTime.now());
+        blog.setUpdatedAt(LocalDateTime.now());
+        blog.setTittle("Benchmark");
+        blog.setContent(content);
+        blog.setCategory("Benchmark");
+        blog.setTags(new Tags(List.of("#benchmark")));
+
+        return blog;
+    }
+
+    @Test
+    void measureTheStoredSizeAndLatencyPerContentSize() {
+        Random random = new Random(42);
+
+        for (int size : SIZES) {
+            List<Integer> ids = new ArrayList<>(POSTS);
+
+            long started = System.nanoTime();
+            for (int i = 0; i < POSTS; i++) {
+                ids.add(blogRepository.save(blog(content(random, size))).getId());
+            }
+            long writeMicros = (System.nanoTime() - started) / 1_000 / POSTS;
+
+            started = System.nanoTime();
+            ids.forEach(id -> blogRepository.findById(id).orElseThrow());
+            long readMicros = (System.nanoTime() - started) / 1_000 / POSTS;
+
+            Long stored = jdbcTemplate.queryForObject(
+                    "SELECT SUM(LENGTH(content)) FROM blog WHERE id BETWEEN ? AND ?", Long.class, ids.get(0), ids.get(POSTS - 1)
+            );
+            long storedPerPost = stored == null ? 0 : stored / POSTS;
+
+            System.out.printf("content %7d chars: stored %7d chars (%5.1f%%), write %5d us/post, read %5d us/post%n",
+                    size, storedPerPost, 100.0 * storedPerPost / size, writeMicros, readMicros);
+
+            // assertions: the content reads back unchanged
+            assertEquals(size, blogRepository.findById(ids.get(0)).orElseThrow().getContent().length());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.blogging.blog.facets;
+
+import com.example.blogging.blog.entities.Tags;
+import com.example.blogging.blog.repositories.BlogRepository;
+import com.example.blogging.blog.repositories.PostTagRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FacetCounterTest {
+    @Mock
+    BlogRepository blogRepository;
+
+    @Mock
+    PostTagRepository postTagRepository;
+
+    @InjectMocks
+    FacetCounter facetCounter;
+
+    private AutoCloseable autoCloseable;
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (autoCloseable != null) {
+            autoCloseable.close();
+        }
+        Mockito.reset(blogRepository, postTagRepository);
+    }
+
+    @Test
+    void whenPostsAreAddedAndRemoved_keepTheCountsOfTheirCategoriesAndTags() {
+        facetCounter.add("Software", new Tags(List.of("#Java", "#records")));
+        facetCounter.add("Software", new Tags(List.of("#java")));
+        facetCounter.add("Food", new Tags(List.of("#pasta")));
+        facetCounter.remove("Food", new Tags(List.of("#pasta")));
+
+        Facets facets = facetCounter.facets();
+
+        // assertions: categories and tags without posts are left out
+        assertEquals(Map.of("Software", 2L), facets.categories());
+        assertEquals(Map.of("#java", 2L, "#records", 1L), facets.tags());
+    }
+
+    @Test
+    void whenManyWritersCountTheSameCategory_loseNoUpdate() {
+        IntStream.range(0, 10_000).parallel().forEach(i -> facetCounter.add("Software", new Tags(List.of("#java"))));
+
+        // assertions
+        assertEquals(10_000L, facetCounter.facets().categories().get("Software"));
+    }
+
+    @Test
+    void whenTheCountsAreReconciled_replaceThemWithTheCountsOfTheDatabase() {
+        facetCounter.add("Drifted", new Tags(List.of("#stale")));
+        when(blogRepository.countCategories()).thenReturn(List.of(new FacetCount("Software", 5)));
+        when(postTagRepository.countTags()).thenReturn(List.of(new FacetCount("#java", 3)));
+
+        facetCounter.reconcile();
+        facetCounter.subtract(new Facets(Map.of("Software", 2L), Map.of("#java", 1L)));
+
+        // assertions
+        assertEquals(Map.of("Software", 3L), facetCounter.facets().categories());
+        assertEquals(Map.of("#java", 2L), facetCounter.facets().tags());
+    }
+
+    @Test
+    void whenAPostIsCountedWhileTheCountsAreReconciled_keepItsCount() {
+        facetCounter.add("Software", new Tags(List.of("#java")));
+        when(blogRepository.countCategories()).thenReturn(List.of(new FacetCount("Software", 5)));
+        when(postTagRepository.countTags()).thenAnswer(invocation -> {
+            facetCounter.add("Software", new Tags(List.of("#java")));
+            return List.of(new FacetCount("#java", 5));
+        });
+
+        facetCounter.reconcile();
+
+        // assertions: the post counted during the queries is added to the counts of the database
+        assertEquals(Map.of("Software", 6L), facetCounter.facets().categories());
+        assertEquals(Map.of("#java", 6L), facetCounter.facets().tags());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.blogging.blog.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseSizeFilterTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ResponseSizeFilter filter = new ResponseSizeFilter(registry);
+
+    @Test
+    void whenAResponseIsWritten_recordItsSizeUnderTheUriPattern() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/blog/api/v1/posts/7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        filter.doFilter(request, response, (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/blog/api/v1/posts/{id}");
+            res.getWriter().write("{\"title\":\"café\"}");
+        });
+
+        // assertions:
+        DistributionSummary summary = registry.get("http.server.response.size")
+                .tag("uri", "/blog/api/v1/posts/{id}")
+                .tag("method", "GET")
+                .tag("status", "200")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(response.getContentAsByteArray().length, summary.totalAmount());
+        assertEquals(17, summary.totalAmount());
+    }
+
+    @Test
+    void whenNoHandlerMatches_recordTheSizeUnderUnknown() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/nope/1"), response, (req, res) -> {
+            ((HttpServletResponse) res).setStatus(404);
+            res.getOutputStream().write(new byte[42]);
+        });
+
+        // assertions:
+        assertEquals(42, registry.get("http.server.response.size").tag("uri", "UNKNOWN").summary().totalAmount());
+    }
+}
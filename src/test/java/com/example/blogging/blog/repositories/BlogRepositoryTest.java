@@ -0,0 +1,58 @@
+package com.example.blogging.blog.repositories;
+
+import com.example.blogging.blog.entities.BlogField;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Runs the queries of the repository whose SQL depends on the database against H2 in PostgreSQL mode.
+ * Every test rolls back its transaction.
+ */
+@Transactional
+@ActiveProfiles("h2")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BlogRepositoryTest {
+
+    // far above the ids of the posts other tests create in the shared database
+    private static final int ID = 2_000_001;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void whenAPostIsDeleted_returnItsCategoryOnce() {
+        jdbcTemplate.update("INSERT INTO blog (id, created_at, updated_at, tittle, content, category) VALUES (?, NOW(), NOW(), 'Title', 'Content', 'Cooking')", ID);
+
+        // assertions: the second delete finds no row
+        assertEquals(List.of("Cooking"), blogRepository.deleteBlogReturningCategory(ID));
+        assertEquals(List.of(), blogRepository.deleteBlogReturningCategory(ID));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM blog WHERE id = ?", Integer.class, ID));
+    }
+
+    @Test
+    void whenAPostIsRead_readItsTagsFromItsLinks() {
+        jdbcTemplate.update("INSERT INTO blog (id, created_at, updated_at, tittle, content, category) VALUES (?, NOW(), NOW(), 'Title', 'Content', 'Cooking')", ID);
+        jdbcTemplate.update("INSERT INTO blog (id, created_at, updated_at, tittle, content, category) VALUES (?, NOW(), NOW(), 'Title', 'Content', 'Cooking')", ID + 1);
+        jdbcTemplate.update("INSERT INTO tag (name) VALUES ('#pasta'), ('#dinner') ON CONFLICT DO NOTHING");
+        jdbcTemplate.update("INSERT INTO post_tag (post_id, tag_id) SELECT ?, id FROM tag WHERE name IN ('#pasta', '#dinner')", ID);
+
+        // assertions: sorted by name, and no tags for a post without links
+        assertEquals(List.of("#dinner", "#pasta"), blogRepository.findById(ID).orElseThrow().getTags().tags());
+        assertNull(blogRepository.findById(ID + 1).orElseThrow().getTags());
+        assertEquals(List.of("#dinner", "#pasta"),
+                blogRepository.findRowsByIds(Set.of(BlogField.TAGS), null, List.of(ID)).get(0).view().getTags());
+    }
+}
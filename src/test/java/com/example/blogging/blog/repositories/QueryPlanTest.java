@@ -0,0 +1,113 @@
+package com.example.blogging.blog.repositories;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the main queries of the repository are answered from the indexes of the migrations.
+ * The queries are the SQL Hibernate generates for them, the plans are the ones of H2 in PostgreSQL mode,
+ * which name the index an access uses and mark full scans with "tableScan".
+ */
+@ActiveProfiles("h2")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class QueryPlanTest {
+
+    // far above the ids of the posts other tests create in the shared database
+    private static final int FIRST_ID = 1_000_001;
+    private static final int POSTS = 1_000;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO blog (id, created_at, updated_at, tittle, content, category)
+                SELECT x,
+                       DATEADD(SECOND, x, TIMESTAMP '2024-01-01 00:00:00'),
+                       DATEADD(SECOND, x, TIMESTAMP '2024-01-01 00:00:00'),
+                       CONCAT('Post ', x), CONCAT('Content of post ', x), CONCAT('Category ', MOD(x, 20))
+                FROM SYSTEM_RANGE(CAST(? AS INT), CAST(? AS INT)) AS r(x)
+                """, FIRST_ID, FIRST_ID + POSTS - 1);
+        // let the planner see the row counts and the selectivity of the columns
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM blog WHERE id >= ?", FIRST_ID);
+    }
+
+    String plan(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    @Test
+    void whenListingTheFirstPage_readTheCreatedAtIndexInOrder() {
+        String plan = plan("SELECT id FROM blog ORDER BY created_at DESC, id DESC FETCH FIRST 10 ROWS ONLY");
+
+        // assertions:
+        assertTrue(plan.contains("blog_created_at_id_idx"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    void whenListingThePageAfterACursor_readTheCreatedAtIndexInOrder() {
+        String plan = plan("SELECT id FROM blog WHERE (created_at, id) < (TIMESTAMP '2024-01-01 00:10:00', " + (FIRST_ID + 600) + ")"
+                + " ORDER BY created_at DESC, id DESC FETCH FIRST 10 ROWS ONLY");
+
+        // assertions:
+        assertTrue(plan.contains("blog_created_at_id_idx"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    void whenMatchingIdsOfACategory_useTheCategoryIndex() {
+        String plan = plan("SELECT id FROM blog WHERE id > " + FIRST_ID + " AND category = 'Category 7' ORDER BY id FETCH FIRST 100 ROWS ONLY");
+
+        // assertions:
+        assertTrue(plan.contains("blog_category_id_idx"), plan);
+    }
+
+    @Test
+    void whenReadingAPostById_useThePrimaryKey() {
+        String plan = plan("SELECT * FROM blog WHERE id = " + FIRST_ID);
+
+        // assertions:
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void whenReadingTheChangeFeed_readTheChangeSeqIndexesInOrder() {
+        String posts = plan("SELECT id FROM blog WHERE change_seq > 500 ORDER BY change_seq FETCH FIRST 100 ROWS ONLY");
+        String tombstones = plan("SELECT post_id FROM blog_tombstone WHERE change_seq > 500 ORDER BY change_seq FETCH FIRST 100 ROWS ONLY");
+
+        // assertions:
+        assertTrue(posts.contains("blog_change_seq_idx"), posts);
+        assertFalse(tombstones.contains("tableScan"), tombstones);
+    }
+
+    @Test
+    void whenFindingThePostsOfATag_useTheTagIdIndex() {
+        String plan = plan("SELECT post_id FROM post_tag WHERE tag_id IN (1, 2)");
+
+        // assertions:
+        assertTrue(plan.contains("post_tag_tag_id_post_id_idx"), plan);
+    }
+
+    @Test
+    void whenLookingUpATagByName_useTheUniqueConstraint() {
+        String plan = plan("SELECT id FROM tag WHERE name = '#java'");
+
+        // assertions:
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+}
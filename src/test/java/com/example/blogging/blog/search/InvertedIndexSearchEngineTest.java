@@ -0,0 +1,196 @@
+package com.example.blogging.blog.search;
+
+import com.example.blogging.blog.entities.Blog;
+import com.example.blogging.blog.entities.Tags;
+import com.example.blogging.blog.pagination.Cursor;
+import com.example.blogging.blog.repositories.BlogRepository;
+import com.example.blogging.exception.BlogPostException;
+import com.example.blogging.exception.Causes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class InvertedIndexSearchEngineTest {
+    @Mock
+    BlogRepository blogRepository;
+
+    @Mock
+    LikeQuerySearchEngine fallback;
+
+    InvertedIndexSearchEngine searchEngine;
+
+    private AutoCloseable autoCloseable;
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        searchEngine = new InvertedIndexSearchEngine(blogRepository, fallback, false);
+
+        // start with an empty table so that the index is ready
+        when(blogRepository.findFirstPage(any(Pageable.class))).thenReturn(List.of());
+        searchEngine.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (autoCloseable != null) {
+            autoCloseable.close();
+        }
+        Mockito.reset(blogRepository, fallback);
+    }
+
+    // create a custom blog item for testing
+    Blog blog(int id, String title, String content, String category) {
+        Blog blog = new Blog();
+        blog.setId(id);
+        blog.setCreatedAt(LocalDateTime.now());
+        blog.setUpdatedAt(LocalDateTime.now());
+        blog.setTittle(title);
+        blog.setContent(content);
+        blog.setCategory(category);
+        blog.setTags(new Tags(List.of("#java")));
+
+        return blog;
+    }
+
+    @Test
+    void whenTheIndexIsNotReady_searchWithTheFallback() {
+        InvertedIndexSearchEngine notReady = new InvertedIndexSearchEngine(blogRepository, fallback, false);
+        when(fallback.search("java", null, 10)).thenReturn(new SearchResult(List.of(7), null));
+
+        SearchResult result = notReady.search("java", null, 10);
+
+        // assertions
+        assertEquals(List.of(7), result.ids());
+    }
+
+    @Test
+    void whenTheIndexIsNotReadyAndContentIsCompressed_Throw_SERVICE_BUSY_Exception() {
+        InvertedIndexSearchEngine notReady = new InvertedIndexSearchEngine(blogRepository, fallback, true);
+
+        BlogPostException exception = assertThrows(BlogPostException.class, () -> notReady.search("java", null, 10));
+
+        // assertions
+        assertEquals(Causes.SERVICE_BUSY.label, exception.getMessage());
+        verifyNoInteractions(fallback);
+    }
+
+    @Test
+    void whenTheMatchesAreStreamed_rankThemOnceAndLoadThemInChunks() {
+        for (int id = 1; id <= BlogRepository.STREAM_FETCH_SIZE + 1; id++) {
+            searchEngine.index(blog(id, "Unit Testing", "unit ".repeat(id), "Software"));
+        }
+        when(blogRepository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<Integer> ids = invocation.getArgument(0);
+            return ids.reversed().stream().map(id -> blog(id, "Unit Testing", "", "Software")).toList();
+        });
+
+        List<Integer> ids;
+        try (Stream<Blog> blogs = searchEngine.stream("unit")) {
+            ids = blogs.map(Blog::getId).toList();
+        }
+
+        // assertions: the posts that mention the term most often come first, in two chunks
+        assertEquals(BlogRepository.STREAM_FETCH_SIZE + 1, ids.size());
+        assertEquals(BlogRepository.STREAM_FETCH_SIZE + 1, ids.getFirst());
+        assertEquals(1, ids.getLast());
+        verify(blogRepository, times(2)).findAllById(anyList());
+    }
+
+    @Test
+    void whenTheCursorWasIssuedByTheFallback_keepPagingWithTheFallback() {
+        String cursor = new Cursor(LocalDateTime.of(2024, 6, 1, 12, 0), 7).encode();
+        when(fallback.search("java", cursor, 10)).thenReturn(new SearchResult(List.of(5), null));
+
+        SearchResult result = searchEngine.search("java", cursor, 10);
+
+        // assertions
+        assertEquals(List.of(5), result.ids());
+    }
+
+    @Test
+    void whenTheTermMatchesTheTitleContentOrCategory_returnTheMatchingPosts() {
+        searchEngine.index(blog(1, "Unit Testing", "All programmers must practice", "Software"));
+        searchEngine.index(blog(2, "Cooking", "Pasta with unit-sized portions", "Food"));
+        searchEngine.index(blog(3, "Travel", "Mountains", "Outdoor"));
+
+        SearchResult result = searchEngine.search("UNIT", null, 10);
+
+        // assertions
+        assertEquals(2, result.ids().size());
+        assertTrue(result.ids().containsAll(List.of(1, 2)));
+        assertNull(result.nextCursor());
+        verifyNoInteractions(fallback);
+    }
+
+    @Test
+    void whenAPostContainsTheTermMoreOften_rankItFirst() {
+        searchEngine.index(blog(1, "Java", "java java java", "Software"));
+        searchEngine.index(blog(2, "Streams", "a short note on java", "Software"));
+
+        SearchResult result = searchEngine.search("java", null, 10);
+
+        // assertions
+        assertEquals(List.of(1, 2), result.ids());
+    }
+
+    @Test
+    void whenThereAreMoreHitsThanTheLimit_pageThroughAllHitsWithTheCursor() {
+        for (int i = 1; i <= 5; i++) {
+            searchEngine.index(blog(i, "Post " + i, "java", "Software"));
+        }
+
+        SearchResult first = searchEngine.search("java", null, 2);
+        SearchResult second = searchEngine.search("java", first.nextCursor(), 2);
+        SearchResult third = searchEngine.search("java", second.nextCursor(), 2);
+
+        // assertions: equal scores are ordered by id
+        assertEquals(List.of(1, 2), first.ids());
+        assertEquals(List.of(3, 4), second.ids());
+        assertEquals(List.of(5), third.ids());
+        assertNull(third.nextCursor());
+    }
+
+    @Test
+    void whenAPostIsUpdatedOrRemoved_keepTheIndexUpToDate() {
+        searchEngine.index(blog(1, "Java", "records", "Software"));
+        searchEngine.index(blog(2, "Kotlin", "records", "Software"));
+
+        searchEngine.index(blog(1, "Rust", "ownership", "Software"));
+        searchEngine.remove(2);
+
+        // assertions
+        assertTrue(searchEngine.search("java", null, 10).ids().isEmpty());
+        assertTrue(searchEngine.search("records", null, 10).ids().isEmpty());
+        assertEquals(List.of(1), searchEngine.search("ownership", null, 10).ids());
+    }
+
+    @Test
+    void whenTheRebuildReadAnOlderVersionOfAnIndexedPost_keepTheNewerVersion() {
+        Blog updated = blog(1, "Rust", "ownership", "Software");
+        updated.setVersion(2);
+        Blog readByTheRebuild = blog(1, "Java", "records", "Software");
+        readByTheRebuild.setVersion(1);
+        when(blogRepository.findFirstPage(any(Pageable.class))).thenReturn(List.of(readByTheRebuild));
+        when(blogRepository.findPageAfter(any(LocalDateTime.class), anyInt(), any(Pageable.class))).thenReturn(List.of());
+
+        searchEngine.index(updated);
+        searchEngine.rebuild();
+
+        // assertions
+        assertEquals(List.of(1), searchEngine.search("ownership", null, 10).ids());
+        assertTrue(searchEngine.search("java", null, 10).ids().isEmpty());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.blogging.blog.services;
+
+import com.example.blogging.blog.repositories.BlogRepository;
+import com.example.blogging.blog.requests.BlogPost;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the throughput of creating posts one by one with the batch endpoint's insert path.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@ActiveProfiles("h2")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BatchInsertThroughputTest {
+
+    private static final int POSTS = 10_000;
+
+    @Autowired
+    BlogServiceImpl blogService;
+
+    @Autowired
+    BlogRepository blogRepository;
+
+    List<BlogPost> requests() {
+        return IntStream.range(0, POSTS)
+                .mapToObj(i -> new BlogPost(
+                        "Post " + i,
+                        "Content of post " + i + " ".repeat(200),
+                        "Category " + i % 10,
+                        List.of("#tag" + i % 7, "#java")
+                ))
+                .toList();
+    }
+
+    long postsPerSecond(long startedNanos) {
+        return POSTS * 1_000_000_000L / (System.nanoTime() - startedNanos);
+    }
+
+    @Test
+    void compareTheThroughputOfSingleAndBatchInserts() {
+        List<BlogPost> requests = requests();
+        // the in-memory database is shared with the other tests of the same run
+        long before = blogRepository.count();
+
+        long started = System.nanoTime();
+        requests.forEach(blogService::createNewBlogPost);
+        long single = postsPerSecond(started);
+
+        started = System.nanoTime();
+        List<List<BlogPost>> batches = new ArrayList<>();
+        for (int from = 0; from < POSTS; from += BlogServiceImpl.MAX_BATCH_SIZE) {
+            batches.add(requests.subList(from, Math.min(from + BlogServiceImpl.MAX_BATCH_SIZE, POSTS)));
+        }
+        batches.forEach(blogService::createNewBlogPosts);
+        long batch = postsPerSecond(started);
+
+        System.out.printf("single inserts: %d posts/s, batch inserts: %d posts/s (%.1fx)%n", single, batch, (double) batch / single);
+
+        // assertions
+        assertEquals(before + 2L * POSTS, blogRepository.count());
+    }
+}
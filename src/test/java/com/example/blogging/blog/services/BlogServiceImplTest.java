@@ -1,36 +1,102 @@
 package com.example.blogging.blog.services;
 
+import com.example.blogging.blog.cache.BlogCache;
+import com.example.blogging.blog.cache.ResponseBytesCache;
+import com.example.blogging.blog.changes.ChangeFeed;
 import com.example.blogging.blog.entities.Blog;
+import com.example.blogging.blog.entities.BlogField;
 import com.example.blogging.blog.entities.Tags;
+import com.example.blogging.blog.facets.FacetCounter;
+import com.example.blogging.blog.facets.Facets;
+import com.example.blogging.blog.interfaces.SearchEngine;
+import com.example.blogging.blog.metrics.BlogMetrics;
+import com.example.blogging.blog.pagination.Cursor;
 import com.example.blogging.blog.repositories.BlogRepository;
+import com.example.blogging.blog.repositories.BlogRow;
+import com.example.blogging.blog.requests.BlogPatch;
 import com.example.blogging.blog.requests.BlogPost;
+import com.example.blogging.blog.requests.BulkDelete;
+import com.example.blogging.blog.responses.BlogView;
 import com.example.blogging.blog.responses.CreatedBlogPostData;
+import com.example.blogging.blog.responses.PostVersion;
 import com.example.blogging.blog.responses.Response;
+import com.example.blogging.blog.search.SearchResult;
+import com.example.blogging.blog.tags.TagFilter;
+import com.example.blogging.blog.tags.TagStore;
+import com.example.blogging.blog.trending.TrendingPosts;
+import com.example.blogging.blog.views.ViewCounter;
 import com.example.blogging.exception.BlogPostException;
 import com.example.blogging.exception.Causes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionOperations;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
 
 class BlogServiceImplTest {
     @Mock
     BlogRepository blogRepository;
 
+    @Mock
+    SearchEngine searchEngine;
+
+    @Mock
+    BlogCache blogCache;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    TagStore tagStore;
+
+    @Mock
+    FacetCounter facetCounter;
+
+    @Mock
+    BlogMetrics blogMetrics;
+
+    @Mock
+    ViewCounter viewCounter;
+
+    @Mock
+    TrendingPosts trendingPosts;
+
+    @Mock
+    ResponseBytesCache responseBytesCache;
+
+    @Mock
+    ChangeFeed changeFeed;
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
     @InjectMocks
     BlogServiceImpl blogService;
 
@@ -83,6 +149,20 @@ class BlogServiceImplTest {
         );
     }
 
+    // create the listing row of a blog item with the summary fields
+    BlogRow row(Blog blog) {
+        BlogView view = BlogView.builder()
+                .id(blog.getId())
+                .title(blog.getTittle())
+                .category(blog.getCategory())
+                .tags(blog.getTags().tags())
+                .createdAt(blog.getCreatedAt())
+                .updatedAt(blog.getUpdatedAt())
+                .build();
+
+        return new BlogRow(blog.getId(), blog.getCreatedAt(), blog.getUpdatedAt(), view);
+    }
+
     @Test
     void whenAllFieldsAreValid_createNewBlogPost() {
         // initialize the blog item
@@ -113,7 +193,7 @@ class BlogServiceImplTest {
         // assertions
         assertNotNull(request);
         assertEquals(Causes.NO_EMPTY_FIELDS_ALLOWED.label, exception.getMessage());
-        assertTrue(exception.getCause().getMessage().contains("title"));
+        assertTrue(exception.getDetail().contains("title"));
     }
 
     @Test
@@ -129,7 +209,7 @@ class BlogServiceImplTest {
         // assertions
         assertNotNull(request);
         assertEquals(Causes.NO_EMPTY_FIELDS_ALLOWED.label, exception.getMessage());
-        assertTrue(exception.getCause().getMessage().contains("content"));
+        assertTrue(exception.getDetail().contains("content"));
     }
 
     @Test
@@ -145,7 +225,38 @@ class BlogServiceImplTest {
         // assertions
         assertNotNull(request);
         assertEquals(Causes.NO_EMPTY_FIELDS_ALLOWED.label, exception.getMessage());
-        assertTrue(exception.getCause().getMessage().contains("category"));
+        assertTrue(exception.getDetail().contains("category"));
+    }
+
+    @Test
+    void whenAllBatchItemsAreValid_createNewBlogPostsInOneBatch() {
+        List<BlogPost> requests = List.of(blogPostRequest(blog()), blogPostRequest(blog()));
+
+        when(blogRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ResponseEntity<Response<List<CreatedBlogPostData>>> response = blogService.createNewBlogPosts(requests);
+
+        // assertions
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(2, Objects.requireNonNull(response.getBody()).getData().size());
+        verify(entityManager).flush();
+        verify(searchEngine, times(2)).index(any(Blog.class));
+    }
+
+    @Test
+    void whenSomeBatchItemsHaveEmptyFields_ThrowNoEmptyFieldAllowedExceptionWithEveryInvalidItem() {
+        Blog noTitle = blog();
+        noTitle.setTittle("");
+        Blog noContent = blog();
+        noContent.setContent("");
+        List<BlogPost> requests = List.of(blogPostRequest(noTitle), blogPostRequest(blog()), blogPostRequest(noContent));
+
+        BlogPostException exception = assertThrows(BlogPostException.class, () -> blogService.createNewBlogPosts(requests));
+
+        // assertions
+        assertEquals(Causes.NO_EMPTY_FIELDS_ALLOWED.label, exception.getMessage());
+        assertEquals("The following items have empty fields: {0=[title], 2=[content]}", exception.getDetail());
+        verify(blogRepository, never()).saveAll(anyList());
     }
 
     @Test
@@ -167,7 +278,7 @@ class BlogServiceImplTest {
         BlogPost request = blogPostRequest(blog);
 
         // mock the save operation
-        when(blogRepository.save(any(Blog.class))).thenReturn(blog);
+        when(blogRepository.saveAndFlush(any(Blog.class))).thenReturn(blog);
         when(blogRepository.findById(blog().getId())).thenReturn(Optional.of(blog));
 
         // perform the blog creation operation
@@ -199,7 +310,7 @@ class BlogServiceImplTest {
         // assertions
         assertNotNull(exception);
         assertEquals(Causes.BLOG_ID_DOES_NOT_EXIST.label, exception.getMessage());
-        assertEquals("The submitted id is not in the system", exception.getCause().getMessage());
+        assertEquals("The submitted id is not in the system", exception.getDetail());
     }
 
     @Test
@@ -219,7 +330,7 @@ class BlogServiceImplTest {
         // assertions
         assertNotNull(exception);
         assertEquals(Causes.NO_EMPTY_FIELDS_ALLOWED.label, exception.getMessage());
-        assertEquals("The following fields are empty: [category]", exception.getCause().getMessage());
+        assertEquals("The following fields are empty: [category]", exception.getDetail());
     }
 
     @Test
@@ -239,7 +350,7 @@ class BlogServiceImplTest {
         // assertions
         assertNotNull(exception);
         assertEquals(Causes.NO_EMPTY_FIELDS_ALLOWED.label, exception.getMessage());
-        assertEquals("The following fields are empty: [title]", exception.getCause().getMessage());
+        assertEquals("The following fields are empty: [title]", exception.getDetail());
     }
 
     @Test
@@ -259,20 +370,233 @@ class BlogServiceImplTest {
         // assertions
         assertNotNull(exception);
         assertEquals(Causes.NO_EMPTY_FIELDS_ALLOWED.label, exception.getMessage());
-        assertEquals("The following fields are empty: [content]", exception.getCause().getMessage());
+        assertEquals("The following fields are empty: [content]", exception.getDetail());
     }
 
     @Test
-    void whenTheBlogIdExists_deleteBlogPost_And_Return_204_StatusCode() {
+    void whenOnlyTheTagsArePatched_keepTheOtherFieldsAndReturnTheNewETag() {
+        Blog blog = blog();
+        String content = blog.getContent();
+
+        when(blogRepository.findById(blog.getId())).thenReturn(Optional.of(blog));
+        when(blogRepository.saveAndFlush(any(Blog.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ResponseEntity<Response<CreatedBlogPostData>> response = blogService.patchBlogPost(
+                blog.getId(),
+                new BlogPatch(null, null, null, List.of("#patched")),
+                PostVersion.of(blog).strongETag()
+        );
+
+        // assertions
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of("#patched"), Objects.requireNonNull(response.getBody()).getData().getTags());
+        assertEquals(content, response.getBody().getData().getContent());
+        assertEquals(PostVersion.of(blog).weakETag(), response.getHeaders().getETag());
+        assertEquals(PostVersion.of(blog).strongETag(), response.getHeaders().getFirst(PostVersion.VERSION_HEADER));
+        verify(searchEngine).index(blog);
+    }
+
+    @Test
+    void whenTheTagsArePatched_updateOnlyTheChangedTagLinks() {
         Blog blog = blog();
+        Tags oldTags = blog.getTags();
 
         when(blogRepository.findById(blog.getId())).thenReturn(Optional.of(blog));
+        when(blogRepository.saveAndFlush(any(Blog.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        blogService.patchBlogPost(blog.getId(), new BlogPatch(null, null, null, List.of("#java", "#records")), null);
+
+        // assertions
+        verify(tagStore).update(blog.getId(), oldTags, new Tags(List.of("#java", "#records")));
+    }
+
+    @Test
+    void whenTheIfMatchHeaderIsOutdated_Throw_PRECONDITION_FAILED_Exception() {
+        Blog blog = blog();
+
+        when(blogRepository.findById(blog.getId())).thenReturn(Optional.of(blog));
+
+        BlogPostException exception = assertThrows(BlogPostException.class, () -> blogService.patchBlogPost(blog.getId(), new BlogPatch("New title", null, null, null), "\"1-0\""));
+
+        // assertions
+        assertEquals(Causes.PRECONDITION_FAILED.label, exception.getMessage());
+        verify(blogRepository, never()).saveAndFlush(any(Blog.class));
+    }
+
+    @Test
+    void whenTheIfMatchHeaderIsTheWeakETag_Throw_PRECONDITION_FAILED_Exception() {
+        Blog blog = blog();
+
+        when(blogRepository.findById(blog.getId())).thenReturn(Optional.of(blog));
+
+        BlogPostException exception = assertThrows(BlogPostException.class, () -> blogService.patchBlogPost(blog.getId(), new BlogPatch("New title", null, null, null), PostVersion.of(blog).weakETag()));
+
+        // assertions: If-Match uses the strong comparison
+        assertEquals(Causes.PRECONDITION_FAILED.label, exception.getMessage());
+        verify(blogRepository, never()).saveAndFlush(any(Blog.class));
+    }
+
+    @Test
+    void whenThePostIsModifiedConcurrently_Throw_PRECONDITION_FAILED_Exception() {
+        Blog blog = blog();
+
+        when(blogRepository.findById(blog.getId())).thenReturn(Optional.of(blog));
+        when(blogRepository.saveAndFlush(any(Blog.class))).thenThrow(new ObjectOptimisticLockingFailureException(Blog.class, blog.getId()));
+
+        BlogPostException exception = assertThrows(BlogPostException.class, () -> blogService.patchBlogPost(blog.getId(), new BlogPatch(null, null, "Testing", null), null));
+
+        // assertions
+        assertEquals(Causes.PRECONDITION_FAILED.label, exception.getMessage());
+        verifyNoInteractions(searchEngine);
+    }
+
+    @Test
+    void whenAPatchedFieldIsEmpty_ThrowNoEmptyFieldAllowedExceptionWithThatField() {
+        BlogPostException exception = assertThrows(BlogPostException.class, () -> blogService.patchBlogPost(1, new BlogPatch(null, "", null, null), null));
+
+        // assertions
+        assertEquals(Causes.NO_EMPTY_FIELDS_ALLOWED.label, exception.getMessage());
+        assertEquals("The following fields are empty: [content]", exception.getDetail());
+    }
+
+    @Test
+    void whenTheBlogIdExists_deleteBlogPost_And_Return_204_StatusCode() {
+        Blog blog = blog();
+
+        when(blogRepository.deleteBlogReturningCategory(blog.getId())).thenReturn(List.of(blog.getCategory()));
 
         ResponseEntity<HttpStatus> response = blogService.deleteBlogPost(blog.getId());
 
         // assertions:
         assertNotNull(response);
         assertEquals(HttpStatus.NO_CONTENT, response.getBody());
+        verify(blogRepository, never()).findById(anyInt());
+        verify(blogCache).invalidate(blog.getId());
+        verify(searchEngine).remove(blog.getId());
+    }
+
+    @Test
+    void whenABlogIsDeleted_subtractItFromTheFacetCounts() {
+        Blog blog = blog();
+        Facets deleted = new Facets(Map.of("Software Development", 1L), Map.of("#java", 1L));
+
+        when(blogRepository.deleteBlogReturningCategory(blog.getId())).thenReturn(List.of("Software Development"));
+        when(facetCounter.countDeletedPost("Software Development", blog.getId())).thenReturn(deleted);
+
+        blogService.deleteBlogPost(blog.getId());
+
+        // assertions: the tags are counted from their links before the links are removed
+        InOrder inOrder = inOrder(blogRepository, facetCounter, tagStore);
+        inOrder.verify(blogRepository).deleteBlogReturningCategory(blog.getId());
+        inOrder.verify(facetCounter).countDeletedPost("Software Development", blog.getId());
+        inOrder.verify(tagStore).detach(List.of(blog.getId()));
+        inOrder.verify(facetCounter).subtract(deleted);
+    }
+
+    @Test
+    void whenABlogIsDeleted_leaveATombstoneInTheChangeFeed() {
+        Blog blog = blog();
+
+        when(blogRepository.deleteBlogReturningCategory(blog.getId())).thenReturn(List.of(blog.getCategory()));
+
+        blogService.deleteBlogPost(blog.getId());
+
+        // assertions
+        verify(changeFeed).recordDelete(blog.getId());
+    }
+
+    @Test
+    void whenABlogIsUpdated_moveItToTheEndOfTheChangeFeed() {
+        Blog blog = blog();
+
+        when(blogRepository.findById(blog.getId())).thenReturn(Optional.of(blog));
+        when(blogRepository.saveAndFlush(any(Blog.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        blogService.patchBlogPost(blog.getId(), new BlogPatch("New title", null, null, null), null);
+
+        // assertions
+        verify(blogRepository).touchChangeSeq(blog.getId());
+    }
+
+    @Test
+    void whenTheCategoryOfABlogIsUpdated_moveItBetweenTheFacetCounts() {
+        Blog blog = blog();
+        Tags oldTags = blog.getTags();
+        BlogPost request = new BlogPost(blog.getTittle(), blog.getContent(), "Cooking", List.of("#pasta"));
+
+        when(blogRepository.findById(blog.getId())).thenReturn(Optional.of(blog));
+        when(blogRepository.saveAndFlush(any(Blog.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        blogService.updateBlogPost(blog.getId(), request);
+
+        // assertions
+        verify(facetCounter).remove("Software Development", oldTags);
+        verify(facetCounter).add("Cooking", new Tags(List.of("#pasta")));
+    }
+
+    @Test
+    void whenTheCategoryOfABlogIsPatched_moveItBetweenTheFacetCounts() {
+        Blog blog = blog();
+        Tags oldTags = blog.getTags();
+
+        when(blogRepository.findById(blog.getId())).thenReturn(Optional.of(blog));
+        when(blogRepository.saveAndFlush(any(Blog.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        blogService.patchBlogPost(blog.getId(), new BlogPatch(null, null, "Cooking", null), null);
+
+        // assertions: the old category is counted down, the new one up, the unchanged tags move along
+        verify(facetCounter).remove("Software Development", oldTags);
+        verify(facetCounter).add("Cooking", oldTags);
+    }
+
+    @Test
+    void whenTheBlogIdDoesNotExist_deleteBlogPost_Throw_BLOG_ID_DOES_NOT_EXIST_Exception() {
+        when(blogRepository.deleteBlogReturningCategory(3)).thenReturn(List.of());
+
+        BlogPostException exception = assertThrows(BlogPostException.class, () -> blogService.deleteBlogPost(3));
+
+        // assertions: nothing but the delete runs for an id that does not exist
+        assertEquals(Causes.BLOG_ID_DOES_NOT_EXIST.label, exception.getMessage());
+        verifyNoInteractions(searchEngine, facetCounter, tagStore, changeFeed);
+    }
+
+    @Test
+    void whenTheIdsOfThePostsAreSubmitted_deleteThemInChunks() {
+        Set<Integer> ids = IntStream.rangeClosed(1, 2500).boxed().collect(Collectors.toSet());
+
+        when(blogRepository.deleteBlogsByIds(anyCollection())).thenAnswer(invocation -> invocation.<Collection<?>>getArgument(0).size());
+
+        ResponseEntity<Response<Integer>> response = blogService.deleteBlogPosts(new BulkDelete(ids, null, null));
+
+        // assertions
+        assertEquals(2500, Objects.requireNonNull(response.getBody()).getData());
+        verify(blogRepository, times(3)).deleteBlogsByIds(anyCollection());
+        verify(changeFeed, times(3)).recordDeletes(anyCollection());
+        verify(searchEngine, times(2500)).remove(anyInt());
+    }
+
+    @Test
+    void whenAFilterIsSubmitted_deleteTheMatchingPostsByKeysetChunks() {
+        LocalDateTime before = LocalDateTime.now();
+        List<Integer> firstChunk = IntStream.rangeClosed(1, 1000).boxed().toList();
+
+        when(blogRepository.findIdsMatching("Software Development", before, 0, 1000)).thenReturn(firstChunk);
+        when(blogRepository.findIdsMatching("Software Development", before, 1000, 1000)).thenReturn(List.of(1001));
+
+        ResponseEntity<Response<Integer>> response = blogService.deleteBlogPosts(new BulkDelete(null, "Software Development", before));
+
+        // assertions
+        assertEquals(1001, Objects.requireNonNull(response.getBody()).getData());
+        verify(blogRepository).deleteBlogsByIds(firstChunk);
+        verify(blogRepository).deleteBlogsByIds(List.of(1001));
+    }
+
+    @Test
+    void whenBothIdsAndAFilterAreSubmitted_Throw_INVALID_DELETE_REQUEST_Exception() {
+        BlogPostException exception = assertThrows(BlogPostException.class, () -> blogService.deleteBlogPosts(new BulkDelete(Set.of(1), "Software Development", null)));
+
+        // assertions
+        assertEquals(Causes.INVALID_DELETE_REQUEST.label, exception.getMessage());
     }
 
     @Test
@@ -290,19 +614,117 @@ class BlogServiceImplTest {
         assertEquals(blog.getId(), response.getBody().getData().getId());
     }
 
+    @Test
+    void whenTheBlogIsCached_getSingleBlogPostByIdWithoutQueryingTheRepository() {
+        Blog blog = blog();
+
+        when(blogCache.getIfPresent(blog.getId())).thenReturn(blog);
+
+        ResponseEntity<Response<CreatedBlogPostData>> response = blogService.getSingleBlogPostById(blog.getId());
+
+        // assertions:
+        assertEquals(blog.getId(), Objects.requireNonNull(response.getBody()).getData().getId());
+        verify(blogRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    void whenTheBlogIsNotCached_getSingleBlogPostByIdAndCacheIt() {
+        Blog blog = blog();
+
+        when(blogRepository.findById(blog.getId())).thenReturn(Optional.of(blog));
+
+        blogService.getSingleBlogPostById(blog.getId());
+
+        // assertions:
+        verify(blogCache).put(eq(blog), anyLong());
+    }
+
+    @Test
+    void whenABlogIsRead_countTheViewAndShowTheUnflushedViews() {
+        Blog blog = blog();
+        blog.setViews(40);
+
+        when(blogCache.getIfPresent(blog.getId())).thenReturn(blog);
+        when(viewCounter.unflushed(blog.getId())).thenReturn(2L);
+
+        ResponseEntity<Response<CreatedBlogPostData>> response = blogService.getSingleBlogPostById(blog.getId());
+
+        // assertions:
+        verify(viewCounter).increment(blog.getId());
+        verify(trendingPosts).record(blog.getId());
+        assertEquals(42, Objects.requireNonNull(response.getBody()).getData().getViews());
+    }
+
+    @Test
+    void whenPostsAreTrending_returnThemInOrderAndReadOnlyTheUncachedOnes() {
+        Blog first = blog();
+        first.setId(3);
+        Blog second = blog();
+        second.setId(8);
+
+        when(trendingPosts.top(20)).thenReturn(List.of(3, 8, 5));
+        when(blogCache.getIfPresent(3)).thenReturn(first);
+        when(blogRepository.findAllById(List.of(8, 5))).thenReturn(List.of(second));
+
+        ResponseEntity<Response<List<CreatedBlogPostData>>> response = blogService.getTrendingPosts(20);
+
+        // assertions: the deleted post 5 is skipped, the loaded post 8 is cached
+        List<CreatedBlogPostData> posts = Objects.requireNonNull(response.getBody()).getData();
+        assertEquals(List.of(3, 8), posts.stream().map(CreatedBlogPostData::getId).toList());
+        verify(blogCache).put(eq(second), anyLong());
+    }
+
+    @Test
+    void whenTheBlogIsUpdated_invalidateTheCachedBlog() {
+        Blog blog = blog();
+
+        when(blogRepository.saveAndFlush(any(Blog.class))).thenReturn(blog);
+        when(blogRepository.findById(blog.getId())).thenReturn(Optional.of(blog));
+
+        blogService.updateBlogPost(blog.getId(), blogPostRequest(blog));
+
+        // assertions:
+        verify(blogCache).invalidate(blog.getId());
+        verify(blogCache, never()).getIfPresent(anyInt());
+    }
+
+    @Test
+    void whenTheBlogIsCached_getTheBlogVersionWithoutQueryingTheRepository() {
+        Blog blog = blog();
+
+        when(blogCache.getIfPresent(blog.getId())).thenReturn(blog);
+
+        PostVersion version = blogService.getBlogVersion(blog.getId());
+
+        // assertions:
+        assertEquals(blog.getUpdatedAt(), version.updatedAt());
+        verifyNoInteractions(blogRepository);
+    }
+
+    @Test
+    void whenTheBlogIdDoesNotExist_getBlogVersion_Throw_BLOG_ID_DOES_NOT_EXIST_Exception() {
+        when(blogRepository.findUpdatedAtById(3)).thenReturn(Optional.empty());
+
+        BlogPostException exception = assertThrows(BlogPostException.class, () -> blogService.getBlogVersion(3));
+
+        // assertions
+        assertEquals(Causes.BLOG_ID_DOES_NOT_EXIST.label, exception.getMessage());
+    }
+
     @Test
     void whenTheSearchTermMatchesTheTitleOfABlog_getTheBlogPosts() {
-        List<Blog> blogs = new ArrayList<>();
+        List<BlogRow> rows = new ArrayList<>();
 
         for (int i = 1; i < 6; i++) {
             Blog blog = blog();
             blog.setId(i);
-            blogs.add(blog);
+            rows.add(row(blog));
         }
 
-        when(blogRepository.findBlogs(blog().getTittle())).thenReturn(blogs);
+        when(searchEngine.search(blog().getTittle(), null, BlogServiceImpl.DEFAULT_PAGE_SIZE)).thenReturn(new SearchResult(List.of(1, 2, 3, 4, 5), null));
+        when(blogRepository.findRowsByIds(BlogField.SUMMARY, null, List.of(1, 2, 3, 4, 5))).thenReturn(rows);
 
-        ResponseEntity<Response<List<Blog>>> response = blogService.getBlogPosts(blog().getTittle());
+        ResponseEntity<Response<List<BlogView>>> response = blogService.getBlogPosts(blog().getTittle(), null, BlogServiceImpl.DEFAULT_PAGE_SIZE, null, null, null);
 
         // assertions:
         assertNotNull(response);
@@ -311,17 +733,18 @@ class BlogServiceImplTest {
 
     @Test
     void whenTheSearchTermMatchesTheCategoryOfInBlog_getTheBlogPosts() {
-        List<Blog> blogs = new ArrayList<>();
+        List<BlogRow> rows = new ArrayList<>();
 
         for (int i = 1; i < 6; i++) {
             Blog blog = blog();
             blog.setId(i);
-            blogs.add(blog);
+            rows.add(row(blog));
         }
 
-        when(blogRepository.findBlogs(blog().getCategory())).thenReturn(blogs);
+        when(searchEngine.search(blog().getCategory(), null, BlogServiceImpl.DEFAULT_PAGE_SIZE)).thenReturn(new SearchResult(List.of(1, 2, 3, 4, 5), null));
+        when(blogRepository.findRowsByIds(BlogField.SUMMARY, null, List.of(1, 2, 3, 4, 5))).thenReturn(rows);
 
-        ResponseEntity<Response<List<Blog>>> response = blogService.getBlogPosts(blog().getCategory());
+        ResponseEntity<Response<List<BlogView>>> response = blogService.getBlogPosts(blog().getCategory(), null, BlogServiceImpl.DEFAULT_PAGE_SIZE, null, null, null);
 
         // assertions:
         assertNotNull(response);
@@ -330,17 +753,18 @@ class BlogServiceImplTest {
 
     @Test
     void whenTheSearchTermIsInTheContentABlog_getThe_BlogPosts() {
-        List<Blog> blogs = new ArrayList<>();
+        List<BlogRow> rows = new ArrayList<>();
 
         for (int i = 1; i < 6; i++) {
             Blog blog = blog();
             blog.setId(i);
-            blogs.add(blog);
+            rows.add(row(blog));
         }
 
-        when(blogRepository.findBlogs(blog().getContent())).thenReturn(blogs);
+        when(searchEngine.search(blog().getContent(), null, BlogServiceImpl.DEFAULT_PAGE_SIZE)).thenReturn(new SearchResult(List.of(1, 2, 3, 4, 5), null));
+        when(blogRepository.findRowsByIds(BlogField.SUMMARY, null, List.of(1, 2, 3, 4, 5))).thenReturn(rows);
 
-        ResponseEntity<Response<List<Blog>>> response = blogService.getBlogPosts(blog().getContent());
+        ResponseEntity<Response<List<BlogView>>> response = blogService.getBlogPosts(blog().getContent(), null, BlogServiceImpl.DEFAULT_PAGE_SIZE, null, null, null);
 
         // assertions:
         assertNotNull(response);
@@ -348,21 +772,194 @@ class BlogServiceImplTest {
     }
 
     @Test
-    void whenTheSearchTermIsEmpty_getAllTheBlogPosts() {
+    void whenTheSearchEngineRanksThePosts_keepTheRankingOrder() {
+        List<BlogRow> rows = new ArrayList<>();
+
+        for (int i = 1; i < 4; i++) {
+            Blog blog = blog();
+            blog.setId(i);
+            rows.add(row(blog));
+        }
+
+        when(searchEngine.search("testing", null, 2)).thenReturn(new SearchResult(List.of(3, 1), "next"));
+        when(blogRepository.findRowsByIds(BlogField.SUMMARY, null, List.of(3, 1))).thenReturn(List.of(rows.get(0), rows.get(2)));
+
+        ResponseEntity<Response<List<BlogView>>> response = blogService.getBlogPosts("testing", null, 2, null, null, null);
+
+        // assertions:
+        assertNotNull(response);
+        assertEquals(List.of(3, 1), Objects.requireNonNull(response.getBody()).getData().stream().map(BlogView::getId).toList());
+        assertEquals("next", response.getBody().getNextCursor());
+    }
+
+    @Test
+    void whenThePostsAreStreamed_writeOneJsonLinePerPostAndDetachIt() throws IOException {
         List<Blog> blogs = new ArrayList<>();
 
-        for (int i = 1; i < 6; i++) {
+        for (int i = 1; i < 4; i++) {
+            Blog blog = blog();
+            blog.setId(i);
+            blogs.add(blog);
+        }
+
+        when(blogRepository.streamAll()).thenReturn(blogs.stream());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        blogService.streamBlogPosts(null, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+
+        // assertions:
+        assertEquals(3, lines.length);
+        assertEquals(3, objectMapper.readTree(lines[2]).get("id").asInt());
+        verify(entityManager, times(3)).detach(any(Blog.class));
+    }
+
+    @Test
+    void whenThePostsMatchingATermAreStreamed_writeThemInTheOrderOfTheSearchEngine() throws IOException {
+        List<Blog> blogs = new ArrayList<>();
+
+        for (int i = 3; i > 0; i--) {
             Blog blog = blog();
             blog.setId(i);
             blogs.add(blog);
         }
 
-        when(blogRepository.findAll()).thenReturn(blogs);
+        when(searchEngine.stream("testing")).thenReturn(blogs.stream());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        blogService.streamBlogPosts("testing", outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+
+        // assertions:
+        assertEquals(3, lines.length);
+        assertEquals(3, objectMapper.readTree(lines[0]).get("id").asInt());
+        assertEquals(1, objectMapper.readTree(lines[2]).get("id").asInt());
+        verify(blogRepository, never()).streamAll();
+        verify(entityManager, times(3)).detach(any(Blog.class));
+    }
+
+    @Test
+    void whenTheSearchTermIsEmpty_getAllTheBlogPosts() {
+        List<BlogRow> rows = new ArrayList<>();
+
+        for (int i = 1; i < 6; i++) {
+            Blog blog = blog();
+            blog.setId(i);
+            rows.add(row(blog));
+        }
+
+        when(blogRepository.findRows(BlogField.SUMMARY, null, null, BlogServiceImpl.DEFAULT_PAGE_SIZE + 1)).thenReturn(rows);
+
+        ResponseEntity<Response<List<BlogView>>> response = blogService.getBlogPosts("", null, BlogServiceImpl.DEFAULT_PAGE_SIZE, null, null, null);
+
+        // assertions:
+        assertNotNull(response);
+        assertEquals(5, Objects.requireNonNull(response.getBody()).getData().size());
+        assertNull(response.getBody().getNextCursor());
+    }
+
+    @Test
+    void whenMorePostsThanTheLimitExist_ReturnOnePageWithTheCursorOfTheLastPost() {
+        List<BlogRow> rows = new ArrayList<>();
+
+        for (int i = 6; i > 0; i--) {
+            Blog blog = blog();
+            blog.setId(i);
+            rows.add(row(blog));
+        }
+
+        when(blogRepository.findRows(BlogField.SUMMARY, null, null, 6)).thenReturn(rows);
 
-        ResponseEntity<Response<List<Blog>>> response = blogService.getBlogPosts("");
+        ResponseEntity<Response<List<BlogView>>> response = blogService.getBlogPosts(null, null, 5, null, null, null);
 
         // assertions:
         assertNotNull(response);
         assertEquals(5, Objects.requireNonNull(response.getBody()).getData().size());
+        assertEquals(2, Cursor.decode(response.getBody().getNextCursor()).id());
+        verify(blogMetrics).recordPage(false, 5);
+    }
+
+    @Test
+    void whenACursorIsSubmitted_getThePostsAfterTheCursor() {
+        Blog last = blog();
+        last.setId(7);
+        String cursor = Cursor.of(last).encode();
+
+        when(blogRepository.findRows(BlogField.SUMMARY, null, Cursor.of(last), 6)).thenReturn(List.of(row(blog())));
+
+        ResponseEntity<Response<List<BlogView>>> response = blogService.getBlogPosts(null, cursor, 5, null, null, null);
+
+        // assertions:
+        assertNotNull(response);
+        assertEquals(1, Objects.requireNonNull(response.getBody()).getData().size());
+        assertNull(response.getBody().getNextCursor());
+    }
+
+    @Test
+    void whenTheCursorIsMalformed_Throw_INVALID_CURSOR_Exception() {
+        BlogPostException exception = assertThrows(BlogPostException.class, () -> blogService.getBlogPosts(null, "not-a-cursor", 5, null, null, null));
+
+        // assertions
+        assertNotNull(exception);
+        assertEquals(Causes.INVALID_CURSOR.label, exception.getMessage());
+    }
+
+    @Test
+    void whenFieldsAreSelected_readOnlyTheSelectedFields() {
+        Set<BlogField> selected = EnumSet.of(BlogField.ID, BlogField.TITLE);
+        Blog blog = blog();
+        BlogRow row = new BlogRow(blog.getId(), blog.getCreatedAt(), blog.getUpdatedAt(),
+                BlogView.builder().id(blog.getId()).title(blog.getTittle()).build());
+
+        when(blogRepository.findRows(selected, null, null, 6)).thenReturn(List.of(row));
+
+        ResponseEntity<Response<List<BlogView>>> response = blogService.getBlogPosts(null, null, 5, "title", null, null);
+
+        // assertions:
+        BlogView view = Objects.requireNonNull(response.getBody()).getData().get(0);
+        assertEquals(blog.getTittle(), view.getTitle());
+        assertNull(view.getContent());
+        assertEquals("\"" + PostVersion.eTag(List.of(PostVersion.of(blog)), selected, null) + "\"", response.getHeaders().getETag());
+        assertNotEquals(PostVersion.eTag(List.of(PostVersion.of(blog)), BlogField.SUMMARY, null), PostVersion.eTag(List.of(PostVersion.of(blog)), selected, null));
+    }
+
+    @Test
+    void whenAnUnknownFieldIsSelected_Throw_INVALID_FIELDS_Exception() {
+        BlogPostException exception = assertThrows(BlogPostException.class, () -> blogService.getBlogPosts(null, null, 5, "title,password", null, null));
+
+        // assertions
+        assertNotNull(exception);
+        assertEquals(Causes.INVALID_FIELDS.label, exception.getMessage());
+        verifyNoInteractions(blogRepository);
+    }
+
+    @Test
+    void whenTagsAreSubmitted_listOnlyThePostsWithTheTags() {
+        TagFilter filter = new TagFilter(Set.of(3, 4), true);
+        List<String> tags = List.of("#java", "#software");
+
+        when(tagStore.filter(tags, "all")).thenReturn(filter);
+        when(blogRepository.findRows(BlogField.SUMMARY, filter, null, 6)).thenReturn(List.of(row(blog())));
+
+        ResponseEntity<Response<List<BlogView>>> response = blogService.getBlogPosts(null, null, 5, null, tags, "all");
+
+        // assertions:
+        assertEquals(1, Objects.requireNonNull(response.getBody()).getData().size());
+    }
+
+    @Test
+    void whenNoPostCanHaveTheTags_returnAnEmptyPageWithoutQuerying() {
+        List<String> tags = List.of("#unknown");
+
+        when(tagStore.filter(tags, "all")).thenReturn(new TagFilter(Set.of(), true));
+
+        ResponseEntity<Response<List<BlogView>>> response = blogService.getBlogPosts(null, null, 5, null, tags, "all");
+
+        // assertions:
+        assertTrue(Objects.requireNonNull(response.getBody()).getData().isEmpty());
+        assertNull(response.getBody().getNextCursor());
+        verifyNoInteractions(blogRepository);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package com.example.blogging.blog.tags;
+
+import com.example.blogging.blog.entities.Blog;
+import com.example.blogging.blog.entities.PostTag;
+import com.example.blogging.blog.entities.PostTagId;
+import com.example.blogging.blog.entities.Tag;
+import com.example.blogging.blog.entities.Tags;
+import com.example.blogging.blog.repositories.PostTagRepository;
+import com.example.blogging.blog.repositories.TagRepository;
+import com.example.blogging.exception.BlogPostException;
+import com.example.blogging.exception.Causes;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TagStoreTest {
+    @Mock
+    TagRepository tagRepository;
+
+    @Mock
+    PostTagRepository postTagRepository;
+
+    @Mock
+    EntityManager entityManager;
+
+    @InjectMocks
+    TagStore tagStore;
+
+    private AutoCloseable autoCloseable;
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (autoCloseable != null) {
+            autoCloseable.close();
+        }
+        Mockito.reset(tagRepository, postTagRepository, entityManager);
+    }
+
+    @Test
+    void whenAPostIsCreated_linkItToItsTagsAndInternTheNewOnes() {
+        Blog blog = new Blog();
+        blog.setId(7);
+        blog.setTags(new Tags(List.of("#Java", " #java", "#records")));
+
+        when(tagRepository.findByNameIn(Set.of("#java", "#records"))).thenReturn(List.of(new Tag(1, "#java")));
+        when(tagRepository.findByNameIn(Set.of("#records"))).thenReturn(List.of(new Tag(2, "#records")));
+
+        tagStore.attach(List.of(blog));
+
+        // assertions: duplicate names are linked once, only the unknown name is inserted
+        verify(tagRepository).insertIfAbsent("#records");
+        verify(tagRepository, never()).insertIfAbsent("#java");
+        verify(entityManager).persist(argThat((PostTag postTag) -> postTag.getId().equals(new PostTagId(7, 1))));
+        verify(entityManager).persist(argThat((PostTag postTag) -> postTag.getId().equals(new PostTagId(7, 2))));
+        verify(entityManager, times(2)).persist(any(PostTag.class));
+    }
+
+    @Test
+    void whenTheTagsOfAPostChange_writeOnlyTheDifference() {
+        when(tagRepository.findByNameIn(Set.of("#kotlin"))).thenReturn(List.of(new Tag(3, "#kotlin")));
+        when(tagRepository.findByNameIn(Set.of("#records"))).thenReturn(List.of(new Tag(2, "#records")));
+
+        tagStore.update(7, new Tags(List.of("#java", "#kotlin")), new Tags(List.of("#java", "#records")));
+
+        // assertions: the kept #java link is left untouched
+        verify(postTagRepository).deletePostTags(7, List.of(3));
+        verify(entityManager).persist(argThat((PostTag postTag) -> postTag.getId().equals(new PostTagId(7, 2))));
+        verify(entityManager, times(1)).persist(any(PostTag.class));
+        verify(tagRepository, never()).insertIfAbsent(anyString());
+    }
+
+    @Test
+    void whenAllTagsMustMatchAndOneIsUnknown_matchNothing() {
+        when(tagRepository.findByNameIn(Set.of("#java", "#unknown"))).thenReturn(List.of(new Tag(1, "#java")));
+
+        TagFilter all = tagStore.filter(List.of("#java", "#unknown"), "all");
+        TagFilter any = tagStore.filter(List.of("#java", "#unknown"), "any");
+
+        // assertions
+        assertTrue(all.matchesNothing());
+        assertEquals(Set.of(1), any.tagIds());
+        assertFalse(any.all());
+        assertNull(tagStore.filter(List.of(), "all"));
+    }
+
+    @Test
+    void whenTheMatchModeIsUnknown_Throw_INVALID_TAG_FILTER_Exception() {
+        BlogPostException exception = assertThrows(BlogPostException.class, () -> tagStore.filter(List.of("#java"), "some"));
+
+        // assertions
+        assertEquals(Causes.INVALID_TAG_FILTER.label, exception.getMessage());
+    }
+}
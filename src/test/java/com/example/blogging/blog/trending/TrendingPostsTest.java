@@ -0,0 +1,93 @@
+package com.example.blogging.blog.trending;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingPostsTest {
+
+    AtomicLong now = new AtomicLong(1_000_000);
+    TrendingPosts trendingPosts = new TrendingPosts(Duration.ofMinutes(15), 100, now::get);
+
+    void read(int id, int times) {
+        for (int i = 0; i < times; i++) {
+            trendingPosts.record(id);
+        }
+    }
+
+    @Test
+    void whenPostsAreRead_rankThemByReads() {
+        read(1, 5);
+        read(2, 20);
+        read(3, 10);
+        trendingPosts.refresh();
+
+        // assertions:
+        assertEquals(List.of(2, 3, 1), trendingPosts.top(20));
+        assertEquals(List.of(2, 3), trendingPosts.top(2));
+    }
+
+    @Test
+    void whenReadsGetOld_rankRecentReadsHigher() {
+        read(1, 100);
+        trendingPosts.refresh();
+
+        // two hours are eight half-lives, so 100 old reads weigh less than one recent read
+        now.addAndGet(Duration.ofHours(2).toMillis());
+        read(2, 1);
+        trendingPosts.refresh();
+
+        // assertions:
+        assertEquals(List.of(2, 1), trendingPosts.top(20));
+    }
+
+    @Test
+    void whenTheWeightsGrowLarge_rescaleThemAndKeepTheRanking() {
+        read(1, 3);
+        read(2, 2);
+        trendingPosts.refresh();
+
+        // 80 half-lives later, past the 64 after which the landmark moves
+        now.addAndGet(Duration.ofHours(20).toMillis());
+        read(3, 1);
+        trendingPosts.refresh();
+        read(3, 1);
+        trendingPosts.refresh();
+
+        // assertions:
+        assertEquals(List.of(3, 1, 2), trendingPosts.top(20));
+    }
+
+    @Test
+    void whenAPostIsDeleted_dropItFromTheRanking() {
+        read(1, 5);
+        read(2, 3);
+        trendingPosts.refresh();
+
+        trendingPosts.discard(List.of(1));
+
+        // assertions:
+        assertEquals(List.of(2), trendingPosts.top(20));
+    }
+
+    @Test
+    void whenMorePostsAreReadThanTracked_keepTheHeavyHitters() {
+        SpaceSaving sketch = new SpaceSaving(10);
+
+        // two heavy posts hidden in a long tail of posts read once
+        for (int id = 100; id < 1_100; id++) {
+            sketch.offer(id, 1);
+            if (id % 10 == 0) {
+                sketch.offer(1, 3);
+                sketch.offer(2, 4);
+            }
+        }
+
+        // assertions:
+        assertEquals(10, sketch.size());
+        assertEquals(List.of(2, 1), sketch.top(2));
+    }
+}
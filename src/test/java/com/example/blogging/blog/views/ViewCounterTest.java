@@ -0,0 +1,151 @@
+package com.example.blogging.blog.views;
+
+import com.example.blogging.blog.cache.BlogCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ViewCounterTest {
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    BlogCache blogCache;
+
+    @InjectMocks
+    ViewCounter viewCounter;
+
+    private AutoCloseable autoCloseable;
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (autoCloseable != null) {
+            autoCloseable.close();
+        }
+        Mockito.reset(jdbcTemplate, blogCache);
+    }
+
+    @SuppressWarnings("unchecked")
+    List<Object[]> flushedBatch() {
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(ViewCounter.FLUSH_SQL), batch.capture());
+        return batch.getValue();
+    }
+
+    @Test
+    void whenPostsAreViewed_flushTheViewsInOneBatch() {
+        viewCounter.increment(1);
+        viewCounter.increment(1);
+        viewCounter.increment(1);
+        viewCounter.increment(2);
+
+        viewCounter.flush();
+
+        // assertions: one row per post, with the views to add
+        List<Object[]> batch = flushedBatch();
+        assertEquals(2, batch.size());
+        assertTrue(batch.stream().anyMatch(row -> row[0].equals(3L) && row[1].equals(1)));
+        assertTrue(batch.stream().anyMatch(row -> row[0].equals(1L) && row[1].equals(2)));
+        assertEquals(0, viewCounter.unflushed(1));
+        verify(blogCache).addViews(1, 3L);
+        verify(blogCache).addViews(2, 1L);
+        verify(blogCache, never()).invalidate(anyInt());
+    }
+
+    @Test
+    void whenAPostWasNotViewedSinceTheLastFlush_dropItsCounter() {
+        viewCounter.increment(1);
+        viewCounter.increment(2);
+        viewCounter.flush();
+        viewCounter.increment(2);
+
+        viewCounter.flush();
+
+        // assertions: only the post that is still read keeps a counter
+        assertEquals(1, viewCounter.size());
+        assertEquals(0, viewCounter.unflushed(1));
+    }
+
+    @Test
+    void whenAPostIsViewedAgainAfterItsCounterWasDropped_countTheViewsAgain() {
+        viewCounter.increment(1);
+        viewCounter.flush();
+        viewCounter.flush();
+        viewCounter.increment(1);
+        viewCounter.increment(1);
+
+        viewCounter.flush();
+
+        // assertions: the second flush dropped the counter, the views after it go into a new one
+        assertEquals(0, viewCounter.unflushed(1));
+        verify(blogCache).addViews(1, 1L);
+        verify(blogCache).addViews(1, 2L);
+    }
+
+    @Test
+    void whenNothingWasViewedSinceTheLastFlush_skipTheUpdate() {
+        viewCounter.increment(1);
+        viewCounter.flush();
+        viewCounter.flush();
+
+        // assertions:
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(ViewCounter.FLUSH_SQL), anyList());
+    }
+
+    @Test
+    void whenTheFlushFails_keepTheViewsForTheNextFlush() {
+        when(jdbcTemplate.batchUpdate(eq(ViewCounter.FLUSH_SQL), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("database is down"))
+                .thenReturn(new int[]{1});
+
+        viewCounter.increment(7);
+        viewCounter.flush();
+
+        // assertions:
+        assertEquals(1, viewCounter.unflushed(7));
+        verify(blogCache, never()).addViews(anyInt(), anyLong());
+
+        viewCounter.flush();
+        assertEquals(0, viewCounter.unflushed(7));
+    }
+
+    @Test
+    void whenManyReadersViewTheSamePost_loseNoView() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            IntStream.range(0, 10_000).forEach(i -> executor.submit(() -> viewCounter.increment(1)));
+        }
+
+        // assertions:
+        assertEquals(10_000, viewCounter.unflushed(1));
+    }
+
+    @Test
+    void whenAPostIsDeleted_discardItsViews() {
+        viewCounter.increment(1);
+        viewCounter.discard(List.of(1));
+        viewCounter.flush();
+
+        // assertions:
+        assertEquals(0, viewCounter.unflushed(1));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
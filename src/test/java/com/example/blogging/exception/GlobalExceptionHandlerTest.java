@@ -0,0 +1,68 @@
+package com.example.blogging.exception;
+
+import com.example.blogging.blog.metrics.BlogMetrics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    GlobalExceptionHandler handler = new GlobalExceptionHandler(new BlogMetrics(registry));
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    ResponseEntity<String> handle(BlogPostException exception, String path) {
+        return handler.handleBlogPostExceptions(exception, new ServletWebRequest(new MockHttpServletRequest("GET", path)));
+    }
+
+    @Test
+    void whenAnIdIsNotFound_renderTheTemplateOfTheCause() throws Exception {
+        ResponseEntity<String> response = handle(new BlogPostException(Causes.BLOG_ID_DOES_NOT_EXIST, "The submitted id is not in the system"), "/blog/api/v1/posts/42");
+
+        // assertions:
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals(404, body.path("status").asInt());
+        assertEquals(Causes.BLOG_ID_DOES_NOT_EXIST.label, body.path("error").asText());
+        assertEquals("The submitted id is not in the system", body.path("cause").asText());
+        assertEquals("/blog/api/v1/posts/42", body.path("path").asText());
+        assertFalse(body.path("timeStamp").asText().isEmpty());
+        assertEquals(1, registry.get("blog.exceptions").tag("cause", "BLOG_ID_DOES_NOT_EXIST").counter().count());
+    }
+
+    @Test
+    void whenTheExceptionHasNoDetail_leaveTheCauseOut() throws Exception {
+        ResponseEntity<String> response = handle(new BlogPostException(Causes.NULL_ITEM_RECEIVED), "/blog/api/v1/posts");
+
+        // assertions:
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertFalse(objectMapper.readTree(response.getBody()).has("cause"));
+    }
+
+    @Test
+    void whenTheDetailContainsQuotes_escapeThem() throws Exception {
+        String detail = "The match parameter must be \"all\" or \"any\"";
+        ResponseEntity<String> response = handle(new BlogPostException(Causes.INVALID_TAG_FILTER, detail), "/blog/api/v1/posts");
+
+        // assertions:
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(detail, objectMapper.readTree(response.getBody()).path("cause").asText());
+    }
+
+    @Test
+    void whenTheExceptionIsThrown_captureNoStackTrace() {
+        // assertions:
+        assertEquals(0, new BlogPostException(Causes.BLOG_ID_DOES_NOT_EXIST, "detail").getStackTrace().length);
+        assertNull(new BlogPostException(Causes.BLOG_ID_DOES_NOT_EXIST, "detail").getCause());
+    }
+}